@@ -0,0 +1,58 @@
+// Teste de carga (k6) para /feed e /publications com virtual threads + bulkheads.
+// Uso: k6 run -e BASE_URL=http://localhost:8080 -e EMAIL=premium@gmail.com -e PASSWORD=123 docker/loadtest/feed-and-upload.js
+// Sem k6/MySQL/LocalStack, o mesmo cenário roda em processo: FeedAndUploadLoadTests (mvn test -Dloadtest=true)
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const image = open('./sample.png', 'b');
+
+export const options = {
+    scenarios: {
+        feed: {
+            executor: 'constant-arrival-rate',
+            exec: 'feed',
+            rate: 2000,
+            timeUnit: '1s',
+            duration: '2m',
+            preAllocatedVUs: 500,
+            maxVUs: 2000,
+        },
+        upload: {
+            executor: 'constant-arrival-rate',
+            exec: 'upload',
+            rate: 50,
+            timeUnit: '1s',
+            duration: '2m',
+            preAllocatedVUs: 100,
+            maxVUs: 500,
+        },
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration{scenario:feed}': ['p(99)<300'],
+        'http_req_duration{scenario:upload}': ['p(99)<3000'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/login`, JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    return { token: res.json('acessToken') };
+}
+
+export function feed() {
+    const res = http.get(`${BASE_URL}/feed?page=${Math.floor(Math.random() * 20)}&pageSize=10`);
+    check(res, { 'feed 200': (r) => r.status === 200 });
+}
+
+export function upload(data) {
+    const res = http.post(`${BASE_URL}/publications`, {
+        content: 'load test',
+        imageUrl1: http.file(image, 'a.png', 'image/png'),
+        imageUrl2: http.file(image, 'b.png', 'image/png'),
+        imageUrl3: http.file(image, 'c.png', 'image/png'),
+        imageUrl4: http.file(image, 'd.png', 'image/png'),
+    }, { headers: { Authorization: `Bearer ${data.token}` } });
+    check(res, { 'upload 200': (r) => r.status === 200 });
+}
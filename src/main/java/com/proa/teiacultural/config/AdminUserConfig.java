@@ -5,6 +5,8 @@ import com.proa.teiacultural.entities.User;
 import com.proa.teiacultural.repository.RoleRepository;
 import com.proa.teiacultural.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -13,6 +15,7 @@ import java.util.Set;
 
 @Configuration
 public class AdminUserConfig implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(AdminUserConfig.class);
 
     private RoleRepository roleRepository;
     private UserRepository userRepository;
@@ -32,7 +35,7 @@ public class AdminUserConfig implements CommandLineRunner {
 
         userAdmin.ifPresentOrElse(
                 user -> {
-                    System.out.println("admin já existe!");
+                    log.info("admin já existe!");
                 },
                 () -> {
                     var user = new User();
@@ -8,8 +8,10 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class AwsConfig {
@@ -23,6 +25,31 @@ public class AwsConfig {
     @Value("${aws.secret-key}")
     private String secretKey;
 
+    @Value("${aws.max-concurrency}")
+    private int maxConcurrency;
+
+    @Value("${aws.bulkhead-max-wait-ms}")
+    private long bulkheadMaxWaitMs;
+
+    // Limita as chamadas simultâneas ao S3Client (o cliente HTTP padrão do SDK abre até 50 conexões)
+    @Bean
+    public Bulkhead s3Bulkhead() {
+        return new Bulkhead("s3", maxConcurrency, Duration.ofMillis(bulkheadMaxWaitMs));
+    }
+
+    // Assina URLs de upload direto para o bucket, com as mesmas credenciais e endpoint do S3Client
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        AwsBasicCredentials awsBasicCredentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        return S3Presigner.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(awsBasicCredentials))
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.US_EAST_2)
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+    }
+
     @Bean
     public S3Client s3Client() {
         AwsBasicCredentials awsBasicCredentials = AwsBasicCredentials.create(accessKey, secretKey);
@@ -0,0 +1,80 @@
+package com.proa.teiacultural.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Limite explícito de concorrência para um recurso bloqueante (S3). Com virtual threads o excesso de
+// requisições fica enfileirado aqui, em vez de esgotar as conexões do cliente HTTP do SDK
+public class Bulkhead implements MeterBinder {
+    private final String name;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final Duration maxWait;
+
+    public Bulkhead(String name, int maxConcurrency, Duration maxWait) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxWait = maxWait;
+    }
+
+    public void acquire() {
+        try {
+            if (!permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new BulkheadFullException(name, maxWait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(name, maxWait);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bulkhead.permits.available", this, Bulkhead::getAvailablePermits)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bulkhead.permits.max", this, Bulkhead::getMaxConcurrency)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bulkhead.queue", this, Bulkhead::getQueueLength)
+                .tag("name", name)
+                .description("Threads waiting for a permit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.proa.teiacultural.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String name, Duration maxWait) {
+        super("Bulkhead " + name + " is full after waiting " + maxWait.toMillis() + " ms");
+    }
+}
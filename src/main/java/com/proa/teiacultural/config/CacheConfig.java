@@ -0,0 +1,91 @@
+package com.proa.teiacultural.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String FEED_PAGES = "feedPages";
+    public static final String USER_PROFILES = "userProfiles";
+    public static final String USER_SUMMARIES = "userSummaries";
+    public static final String VERIFIED_JWTS = "verifiedJwts";
+
+    // Apenas as primeiras páginas do /feed são cacheadas; o resto vai direto ao banco
+    public static final int FEED_CACHED_PAGES = 5;
+
+    @Value("${cache.feed-pages.max-size}")
+    private long feedPagesMaxSize;
+
+    @Value("${cache.feed-pages.ttl-seconds}")
+    private long feedPagesTtlSeconds;
+
+    @Value("${cache.profiles.max-size}")
+    private long profilesMaxSize;
+
+    @Value("${cache.profiles.ttl-seconds}")
+    private long profilesTtlSeconds;
+
+    @Value("${cache.verified-jwts.max-size}")
+    private long verifiedJwtsMaxSize;
+
+    @Bean
+    public CaffeineCacheManager cacheManager() {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(FEED_PAGES, Caffeine.newBuilder()
+                .maximumSize(feedPagesMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(feedPagesTtlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_PROFILES, Caffeine.newBuilder()
+                .maximumSize(profilesMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(profilesTtlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_SUMMARIES, Caffeine.newBuilder()
+                .maximumSize(profilesMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(profilesTtlSeconds))
+                .recordStats()
+                .build());
+        // Cada JWT verificado fica em cache exatamente até o seu "exp"
+        cacheManager.registerCustomCache(VERIFIED_JWTS, Caffeine.newBuilder()
+                .maximumSize(verifiedJwtsMaxSize)
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        return untilExpiration(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return untilExpiration(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    private static Duration untilExpiration(Object value) {
+        if (value instanceof Jwt jwt && jwt.getExpiresAt() != null) {
+            var remaining = Duration.between(Instant.now(), jwt.getExpiresAt());
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+        return Duration.ZERO;
+    }
+}
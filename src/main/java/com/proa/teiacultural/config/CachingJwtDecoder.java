@@ -0,0 +1,37 @@
+package com.proa.teiacultural.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Evita refazer a verificação RSA de um token que já foi validado: a chave é o SHA-256 do token
+// e só entram no cache os Jwt que passaram pelo decoder original (falhas nunca são cacheadas)
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final Cache<Object, Object> verifiedJwts;
+
+    public CachingJwtDecoder(JwtDecoder delegate, Cache<Object, Object> verifiedJwts) {
+        this.delegate = delegate;
+        this.verifiedJwts = verifiedJwts;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return (Jwt) verifiedJwts.get(hash(token), key -> delegate.decode(token));
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.proa.teiacultural.config;
+
+import com.proa.teiacultural.services.CategoryService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CategoryIndexConfig implements CommandLineRunner {
+
+    private final CategoryService categoryService;
+
+    public CategoryIndexConfig(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    // Indexa usuários criados antes de tb_users_categories existir
+    @Override
+    public void run(String... args) {
+        categoryService.backfill();
+    }
+}
@@ -0,0 +1,21 @@
+package com.proa.teiacultural.config;
+
+import com.proa.teiacultural.services.ImageDerivativeService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ImageDerivativeConfig implements CommandLineRunner {
+
+    private final ImageDerivativeService imageDerivativeService;
+
+    public ImageDerivativeConfig(ImageDerivativeService imageDerivativeService) {
+        this.imageDerivativeService = imageDerivativeService;
+    }
+
+    // Coloca na fila as imagens que ainda não têm registro de derivadas
+    @Override
+    public void run(String... args) {
+        imageDerivativeService.backfill();
+    }
+}
@@ -0,0 +1,29 @@
+package com.proa.teiacultural.config;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Configuration
+public class MetricsConfig {
+
+    // http.server.requests ganha a tag "handler" (ex.: PublicationController.feed): um histograma por método de controller
+    @Bean
+    public ServerRequestObservationConvention handlerObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                var handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+                var name = handler instanceof HandlerMethod handlerMethod
+                        ? handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName()
+                        : "none";
+                return super.getLowCardinalityKeyValues(context).and("handler", name);
+            }
+        };
+    }
+}
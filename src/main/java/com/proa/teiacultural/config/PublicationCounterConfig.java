@@ -0,0 +1,21 @@
+package com.proa.teiacultural.config;
+
+import com.proa.teiacultural.services.PublicationCounterService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PublicationCounterConfig implements CommandLineRunner {
+
+    private final PublicationCounterService publicationCounterService;
+
+    public PublicationCounterConfig(PublicationCounterService publicationCounterService) {
+        this.publicationCounterService = publicationCounterService;
+    }
+
+    // A recontagem completa só roda aqui na primeira subida; depois é um job administrativo
+    @Override
+    public void run(String... args) {
+        publicationCounterService.initialize();
+    }
+}
@@ -0,0 +1,69 @@
+package com.proa.teiacultural.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Com datasource.replica.enabled=true o DataSource da aplicação passa a ser o roteador primário/réplica.
+// Os dois pools continuam sendo HikariDataSource, cada um com seu limite de conexões e connection-timeout
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${datasource.replica.max-lag-ms}")
+    private long maxLagMs;
+
+    @Value("${datasource.replica.lag-check-interval-ms}")
+    private long lagCheckIntervalMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username}") String username,
+                                              @Value("${datasource.replica.password}") String password,
+                                              @Value("${datasource.replica.driver-class-name}") String driverClassName) {
+        return DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).driverClassName(driverClassName)
+                .build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, Duration.ofMillis(maxLagMs));
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                      @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                      ReplicaLagMonitor replicaLagMonitor) {
+        // Depois desse tempo a escrita com certeza já é anterior ao que o monitor considera aplicado na réplica
+        var writeRetention = Duration.ofMillis(maxLagMs + 2 * lagCheckIntervalMs);
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, writeRetention);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        routingDataSource.setApplicationDataSource(dataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,64 @@
+package com.proa.teiacultural.config;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+
+// Mede o atraso da réplica por heartbeat (tb_replica_heartbeat): cada verificação compara o último batimento
+// visível na réplica com o do primário e só depois grava um novo no primário. O batimento usa o relógio do
+// primário (NOW(6)), o mesmo das posições de escrita do ReplicaRoutingDataSource: relógios das instâncias
+// nunca entram na comparação
+public class ReplicaLagMonitor {
+    private static final String SELECT_BEAT = "SELECT beat_timestamp FROM tb_replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    // Instante (do primário) até o qual a réplica já aplicou tudo; null enquanto ela não puder ser usada
+    private volatile Instant replicaCaughtUpTo;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, Duration maxLag) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+    }
+
+    public Instant replicaCaughtUpTo() {
+        return replicaCaughtUpTo;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms}")
+    public void check() {
+        try {
+            // Réplica antes do primário: um batimento gravado entre as duas leituras só aumenta o atraso medido
+            var replicaBeat = lastBeat(replica);
+            var primaryBeat = lastBeat(primary);
+            replicaCaughtUpTo = replicaBeat != null && primaryBeat != null
+                    && Duration.between(replicaBeat, primaryBeat).compareTo(maxLag) <= 0 ? replicaBeat : null;
+        } catch (DataAccessException e) {
+            // Réplica fora do ar ou sem a tabela: tudo vai para o primário até a próxima verificação
+            replicaCaughtUpTo = null;
+        }
+        beat();
+    }
+
+    private Instant lastBeat(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.query(SELECT_BEAT, rs -> rs.next() ? rs.getTimestamp(1).toInstant() : null);
+    }
+
+    private void beat() {
+        if (primary.update("UPDATE tb_replica_heartbeat SET beat_timestamp = NOW(6) WHERE id = 1") > 0) {
+            return;
+        }
+        try {
+            primary.update("INSERT INTO tb_replica_heartbeat (id, beat_timestamp) VALUES (1, NOW(6))");
+        } catch (DuplicateKeyException e) {
+            // Outra instância criou a linha primeiro
+        }
+    }
+}
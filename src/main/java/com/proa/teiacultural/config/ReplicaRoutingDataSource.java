@@ -0,0 +1,84 @@
+package com.proa.teiacultural.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+// Transações readOnly vão para a réplica, exceto quando ela está atrasada além do tolerado ou quando o usuário
+// da requisição (subject do JWT) fez commit de uma escrita que a réplica ainda não aplicou (read-your-writes).
+// Precisa ficar atrás de um LazyConnectionDataSourceProxy: a conexão só é escolhida no primeiro comando,
+// quando a transação já está marcada como readOnly.
+// As posições de escrita ficam na memória de cada instância: com mais de uma instância, o balanceador precisa
+// de sessões afinadas por usuário (sticky sessions), senão a leitura seguinte pode cair em outra instância
+// e vir da réplica sem a escrita
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    // Posição (relógio do primário) do último commit de escrita de cada subject
+    private final Cache<String, Instant> lastWrites;
+    // Consultas na conexão da transação corrente: o DataSource da aplicação, na frente deste roteador
+    private JdbcTemplate transactionJdbcTemplate;
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                                    ReplicaLagMonitor lagMonitor, Duration writeRetention) {
+        this.lagMonitor = lagMonitor;
+        this.lastWrites = Caffeine.newBuilder().expireAfterWrite(writeRetention).build();
+        setTargetDataSources(Map.<Object, Object>of(Target.PRIMARY, primaryDataSource, Target.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    public void setApplicationDataSource(DataSource applicationDataSource) {
+        this.transactionJdbcTemplate = new JdbcTemplate(applicationDataSource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var subject = currentSubject();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (subject != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWrites.put(subject, writePosition());
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+
+        var caughtUpTo = lagMonitor.replicaCaughtUpTo();
+        if (caughtUpTo == null) {
+            return Target.PRIMARY;
+        }
+        var lastWrite = subject == null ? null : lastWrites.getIfPresent(subject);
+        return lastWrite != null && !lastWrite.isBefore(caughtUpTo) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    // NOW(6) lido depois do commit, ainda na conexão da transação: a escrita é anterior a esse instante, e um
+    // batimento mais novo visível na réplica garante que ela já foi aplicada. Sem a leitura, o subject fica
+    // no primário até a entrada expirar
+    private Instant writePosition() {
+        try {
+            return transactionJdbcTemplate.queryForObject("SELECT NOW(6)", Timestamp.class).toInstant();
+        } catch (DataAccessException e) {
+            return Instant.MAX;
+        }
+    }
+
+    private static String currentSubject() {
+        return SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthenticationToken token ? token.getName() : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.proa.teiacultural.config;
+
+import com.proa.teiacultural.services.SearchIndexService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SearchIndexConfig implements CommandLineRunner {
+
+    private final SearchIndexService searchIndexService;
+
+    public SearchIndexConfig(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    // Monta o índice de busca a partir do banco antes de a aplicação começar a responder /search
+    @Override
+    public void run(String... args) {
+        searchIndexService.rebuild();
+    }
+}
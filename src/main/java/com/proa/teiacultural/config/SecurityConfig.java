@@ -5,6 +5,8 @@ import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -32,6 +34,8 @@ public class SecurityConfig {
     private RSAPublicKey publicKey;
     @Value("${jwt.private.key}")
     private RSAPrivateKey privateKey;
+    @Value("${management.server.port}")
+    private int managementPort;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -42,6 +46,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/feed/filter/username/{username}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/feed/filter/category/{category}").permitAll()
 
+                        .requestMatchers(HttpMethod.GET, "/search").permitAll()
+
                         .requestMatchers(HttpMethod.GET, "/users/category/{category}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/users/username/{username}").permitAll()
 
@@ -50,6 +56,13 @@ public class SecurityConfig {
 
                         .requestMatchers(HttpMethod.POST, "/users").permitAll()
                         .requestMatchers(HttpMethod.POST, "/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/token/refresh").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/token/revoke").permitAll()
+
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        // Métricas sem autenticação só na porta de gerenciamento, que não é exposta publicamente
+                        .requestMatchers(request -> request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                         .anyRequest().authenticated())
                 .csrf(csrf -> csrf.disable())
                 .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
@@ -59,8 +72,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+    public JwtDecoder jwtDecoder(CaffeineCacheManager cacheManager) {
+        var verifiedJwts = ((CaffeineCache) cacheManager.getCache(CacheConfig.VERIFIED_JWTS)).getNativeCache();
+        return new CachingJwtDecoder(NimbusJwtDecoder.withPublicKey(publicKey).build(), verifiedJwts);
     }
 
     @Bean
@@ -0,0 +1,127 @@
+package com.proa.teiacultural.controller;
+
+import com.proa.teiacultural.controller.dto.AdminDto.CacheStatsDto;
+import com.proa.teiacultural.controller.dto.AdminDto.ImportResultDto;
+import com.proa.teiacultural.services.BulkImportService;
+import com.proa.teiacultural.services.ExportService;
+import com.proa.teiacultural.services.PublicationCounterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+public class AdminController {
+    private final CaffeineCacheManager cacheManager;
+    private final ExportService exportService;
+    private final BulkImportService bulkImportService;
+    private final PublicationCounterService publicationCounterService;
+
+    public AdminController(CaffeineCacheManager cacheManager, ExportService exportService, BulkImportService bulkImportService,
+                           PublicationCounterService publicationCounterService) {
+        this.cacheManager = cacheManager;
+        this.exportService = exportService;
+        this.bulkImportService = bulkImportService;
+        this.publicationCounterService = publicationCounterService;
+    }
+
+    @GetMapping("/admin/caches")
+    @PreAuthorize("hasAuthority('SCOPE_admin')")
+    public ResponseEntity<Map<String, CacheStatsDto>> cacheStats() {
+        var stats = new TreeMap<String, CacheStatsDto>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache cache) {
+                var nativeCache = cache.getNativeCache();
+                var cacheStats = nativeCache.stats();
+                stats.put(cacheName, new CacheStatsDto(
+                        nativeCache.estimatedSize(),
+                        cacheStats.hitCount(),
+                        cacheStats.missCount(),
+                        cacheStats.hitRate(),
+                        cacheStats.evictionCount()
+                ));
+            }
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    // Recontagem completa dos totais de publicações. Bloqueia as escritas de publicações de todas as instâncias
+    // enquanto conta: rodar fora do horário de pico
+    @PostMapping("/admin/counters/reconcile")
+    @PreAuthorize("hasAuthority('SCOPE_admin')")
+    public ResponseEntity<Void> reconcileCounters() {
+        publicationCounterService.reconcile();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Backup em gzip (NDJSON ou CSV) escrito direto na resposta, em chunks; se a conexão cair,
+    // basta repetir a chamada com afterId = último id recebido
+    @GetMapping("/admin/export/users")
+    @PreAuthorize("hasAuthority('SCOPE_admin')")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                            @RequestParam(required = false) UUID afterId,
+                            HttpServletResponse response) throws IOException {
+        var exportFormat = ExportService.Format.parse(format);
+        prepareDownload(response, "users", exportFormat);
+        exportService.exportUsers(afterId, exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/admin/export/publications")
+    @PreAuthorize("hasAuthority('SCOPE_admin')")
+    public void exportPublications(@RequestParam(defaultValue = "ndjson") String format,
+                                   @RequestParam(required = false) Long afterId,
+                                   HttpServletResponse response) throws IOException {
+        var exportFormat = ExportService.Format.parse(format);
+        prepareDownload(response, "publications", exportFormat);
+        exportService.exportPublications(afterId, exportFormat, response.getOutputStream());
+    }
+
+    // Importação em massa a partir de NDJSON (aceita o gzip gerado pela exportação com Content-Encoding: gzip)
+    @PostMapping(value = "/admin/import/users", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_admin')")
+    public ResponseEntity<ImportResultDto> importUsers(HttpServletRequest request) throws IOException {
+        try (var body = requestBody(request)) {
+            return ResponseEntity.ok(bulkImportService.importUsers(body));
+        }
+    }
+
+    @PostMapping(value = "/admin/import/publications", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_admin')")
+    public ResponseEntity<ImportResultDto> importPublications(HttpServletRequest request) throws IOException {
+        try (var body = requestBody(request)) {
+            return ResponseEntity.ok(bulkImportService.importPublications(body));
+        }
+    }
+
+    private InputStream requestBody(HttpServletRequest request) throws IOException {
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            return new GZIPInputStream(request.getInputStream());
+        }
+        return request.getInputStream();
+    }
+
+    private void prepareDownload(HttpServletResponse response, String name, ExportService.Format format) {
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "-" + Instant.now().getEpochSecond() + "." + format.getExtension() + ".gz")
+                .build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+    }
+}
@@ -0,0 +1,34 @@
+package com.proa.teiacultural.controller;
+
+import com.proa.teiacultural.services.ContentVersionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// GET condicional: com If-None-Match/If-Modified-Since ainda válidos responde 304 sem chamar o supplier,
+// ou seja, sem consultar o conteúdo nem serializar JSON
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest request, ContentVersionService.Version version, Supplier<T> body) {
+        var etag = version.etag();
+        var lastModified = version.lastModified().toEpochMilli();
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache())
+                .body(body.get());
+    }
+}
@@ -0,0 +1,32 @@
+package com.proa.teiacultural.controller;
+
+import com.proa.teiacultural.services.FollowService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+public class FollowController {
+    private final FollowService followService;
+
+    public FollowController(FollowService followService) {
+        this.followService = followService;
+    }
+
+    @PostMapping("/users/{username}/follow")
+    public ResponseEntity<Void> follow(@PathVariable String username, JwtAuthenticationToken token) {
+        followService.follow(UUID.fromString(token.getName()), username);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/users/{username}/follow")
+    public ResponseEntity<Void> unfollow(@PathVariable String username, JwtAuthenticationToken token) {
+        followService.unfollow(UUID.fromString(token.getName()), username);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,231 +1,294 @@
 package com.proa.teiacultural.controller;
 
+import com.proa.teiacultural.config.CacheConfig;
 import com.proa.teiacultural.controller.dto.FeedDto.*;
 import com.proa.teiacultural.controller.dto.PublicationDto.CreatePublicationDto;
 import com.proa.teiacultural.controller.dto.PublicationDto.UpdatePublicationDto;
-import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.controller.dto.UploadDto.FinalizePublicationDto;
 import com.proa.teiacultural.entities.Role;
 import com.proa.teiacultural.repository.PublicationRepository;
 import com.proa.teiacultural.repository.UserRepository;
+import com.proa.teiacultural.services.CategoryService;
+import com.proa.teiacultural.services.ContentVersionService;
+import com.proa.teiacultural.services.DirectUploadService;
+import com.proa.teiacultural.services.FeedCacheService;
+import com.proa.teiacultural.services.FeedStreamService;
+import com.proa.teiacultural.services.PublicationCounterService;
+import com.proa.teiacultural.services.PublicationService;
+import com.proa.teiacultural.services.SearchIndexService;
+import com.proa.teiacultural.services.StorageCleanupService;
 import com.proa.teiacultural.services.StoreFileService;
+import com.proa.teiacultural.services.TimelineService;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @RestController
 public class PublicationController {
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final UserRepository userRepository;
     private final PublicationRepository publicationRepository;
     private final StoreFileService storeFileService;
-
-
-    public PublicationController(UserRepository userRepository, PublicationRepository publicationRepository, StoreFileService storeFileService) {
+    private final FeedCacheService feedCacheService;
+    private final StorageCleanupService storageCleanupService;
+    private final SearchIndexService searchIndexService;
+    private final DirectUploadService directUploadService;
+    private final ContentVersionService contentVersionService;
+    private final FeedStreamService feedStreamService;
+    private final PublicationCounterService publicationCounterService;
+    private final TimelineService timelineService;
+    private final PublicationService publicationService;
+
+
+    public PublicationController(UserRepository userRepository, PublicationRepository publicationRepository, StoreFileService storeFileService, FeedCacheService feedCacheService, StorageCleanupService storageCleanupService, SearchIndexService searchIndexService, DirectUploadService directUploadService, ContentVersionService contentVersionService, FeedStreamService feedStreamService, PublicationCounterService publicationCounterService, TimelineService timelineService, PublicationService publicationService) {
         this.userRepository = userRepository;
         this.publicationRepository = publicationRepository;
         this.storeFileService = storeFileService;
+        this.feedCacheService = feedCacheService;
+        this.storageCleanupService = storageCleanupService;
+        this.searchIndexService = searchIndexService;
+        this.directUploadService = directUploadService;
+        this.contentVersionService = contentVersionService;
+        this.feedStreamService = feedStreamService;
+        this.publicationCounterService = publicationCounterService;
+        this.timelineService = timelineService;
+        this.publicationService = publicationService;
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/feed")
     public ResponseEntity<FeedDto> feed(@RequestParam(value = "page", defaultValue = "0") int page,
-                                        @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
-        var publications = publicationRepository.findAll(PageRequest.of(page, pageSize, Sort.Direction.DESC, "creationTimestamp"))
-                .map(publication -> new FeedItemDto(
-                        publication.getPublicationId(),
-                        publication.getUser().getProfessionalName(),
-                        publication.getUser().getProfilePicture(),
-                        publication.getUser().getUsername(),
-                        publication.getUser().getCategory(),
-                        publication.getContent(),
-                        publication.getImageUrl1(),
-                        publication.getImageUrl2(),
-                        publication.getImageUrl3(),
-                        publication.getImageUrl4()
-                ));
-        return ResponseEntity.ok(new FeedDto(publications.getContent(), page, pageSize, publications.getTotalPages(), publications.getTotalElements()));
+                                        @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        WebRequest request) {
+        var limitedPageSize = limitPageSize(pageSize);
+
+        if (cursor != null) {
+            // Modo cursor: busca por (creationTimestamp, publicationId) sem OFFSET e sem COUNT(*)
+            var after = parseCursor(cursor);
+            return ConditionalGet.respond(request, contentVersionService.current(ContentVersionService.FEED), () -> {
+                var feedItems = publicationRepository.findFeedItemsAfter(after.creationTimestamp(), after.publicationId(), PageRequest.ofSize(limitedPageSize));
+                return new FeedDto(feedItems, page, limitedPageSize, -1, -1, nextCursor(feedItems, limitedPageSize));
+            });
+        }
+
+        var version = contentVersionService.current(ContentVersionService.FEED);
+        return ConditionalGet.respond(request, version, () -> {
+            var feedItems = page < CacheConfig.FEED_CACHED_PAGES
+                    ? feedCacheService.cached(CacheConfig.FEED_PAGES, version, List.of(page, limitedPageSize),
+                            () -> publicationRepository.findFeedItems(PageRequest.of(page, limitedPageSize)))
+                    : publicationRepository.findFeedItems(PageRequest.of(page, limitedPageSize));
+            var totalElements = publicationCounterService.total();
+            return new FeedDto(feedItems, page, limitedPageSize, totalPages(totalElements, limitedPageSize), totalElements, nextCursor(feedItems, limitedPageSize));
+        });
+    }
+
+    private int limitPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    private int totalPages(long totalElements, int pageSize) {
+        return (int) Math.ceil((double) totalElements / pageSize);
+    }
+
+    private FeedCursor parseCursor(String cursor) {
+        try {
+            return FeedCursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private String nextCursor(List<FeedItemDto> feedItems, int pageSize) {
+        return nextCursor(feedItems, pageSize, item -> new FeedCursor(item.creationTimestamp(), item.PublicationId()));
     }
 
+    private <T> String nextCursor(List<T> items, int pageSize, Function<T, FeedCursor> cursorOf) {
+        if (items.size() < pageSize) {
+            return null;
+        }
+        return cursorOf.apply(items.get(items.size() - 1)).encode();
+    }
+
+    // Timeline de quem o usuário segue; só em modo cursor, sem total de páginas
+    @GetMapping("/feed/home")
+    public ResponseEntity<FeedDto> homeFeed(@RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                            JwtAuthenticationToken token) {
+        var limitedPageSize = limitPageSize(pageSize);
+        var after = cursor == null ? null : parseCursor(cursor);
+        var feedItems = timelineService.home(UUID.fromString(token.getName()), after, limitedPageSize);
+        return ResponseEntity.ok(new FeedDto(feedItems, 0, limitedPageSize, -1, -1, nextCursor(feedItems, limitedPageSize)));
+    }
+
+    @Transactional(readOnly = true)
     @GetMapping("/feed/filter/username/{username}")
     public ResponseEntity<FilteredFeedDto> filterByUsername(
             @PathVariable String username,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+        pageSize = limitPageSize(pageSize);
+
+        var userId = userRepository.findIdByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        var feedItems = publicationRepository.findFeedFilterByUserId(userId, PageRequest.of(page, pageSize));
+        var totalElements = publicationCounterService.countByUser(userId);
 
-        var user = userRepository.findByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-
-        var publicationsPage = publicationRepository.findAll(PageRequest.of(page, pageSize, Sort.Direction.DESC, "creationTimestamp"));
-
-        var filteredPublications = publicationsPage.getContent().stream()
-                .filter(publication -> username.equals(publication.getUser().getUsername()))
-                .map(publication -> new FeedFilterDto(
-                        publication.getPublicationId(),
-                        publication.getUser().getProfessionalName(),
-                        publication.getUser().getProfilePicture(),
-                        publication.getUser().getUsername(),
-                        publication.getUser().getCategory(),
-                        publication.getContent(),
-                        publication.getImageUrl1(),
-                        publication.getImageUrl2(),
-                        publication.getImageUrl3(),
-                        publication.getImageUrl4()
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(new FilteredFeedDto(filteredPublications, page, pageSize, publicationsPage.getTotalPages(), publicationsPage.getTotalElements()));
+        return ResponseEntity.ok(new FilteredFeedDto(feedItems, page, pageSize, totalPages(totalElements, pageSize), totalElements));
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/feed/filter/category/{category}")
     public ResponseEntity<FilteredFeedDto> filterByCategory(
             @PathVariable String category,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+        pageSize = limitPageSize(pageSize);
 
-        var users = userRepository.findAll()
-                .stream()
-                .filter(user -> user.getCategory() != null && user.getCategory().contains(category))
-                .collect(Collectors.toList());
-
-        var publicationsPage = publicationRepository.findAll(PageRequest.of(page, pageSize, Sort.Direction.DESC, "creationTimestamp"));
-
-        var filteredPublications = publicationsPage.getContent().stream()
-                .filter(publication -> users.contains(publication.getUser()))
-                .map(publication -> new FeedFilterDto(
-                        publication.getPublicationId(),
-                        publication.getUser().getProfessionalName(),
-                        publication.getUser().getProfilePicture(),
-                        publication.getUser().getUsername(),
-                        publication.getUser().getCategory(),
-                        publication.getContent(),
-                        publication.getImageUrl1(),
-                        publication.getImageUrl2(),
-                        publication.getImageUrl3(),
-                        publication.getImageUrl4()
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(new FilteredFeedDto(filteredPublications, page, pageSize, publicationsPage.getTotalPages(), publicationsPage.getTotalElements()));
+        var normalizedCategory = CategoryService.normalizeName(category);
+        var feedItems = publicationRepository.findFeedFilterByCategory(normalizedCategory, PageRequest.of(page, pageSize));
+        var totalElements = publicationCounterService.countByCategory(normalizedCategory);
+
+        return ResponseEntity.ok(new FilteredFeedDto(feedItems, page, pageSize, totalPages(totalElements, pageSize), totalElements));
     }
 
 
+    @Transactional(readOnly = true)
     @GetMapping("/feed/username/{username}")
     public ResponseEntity<List<FeedFilterDto>> usernameFeed(@PathVariable String username) {
-        var users = userRepository.findAll()
-                .stream()
-                .filter(user -> username.equals(user.getUsername()))
-                .collect(Collectors.toList());
-
-        var publications = publicationRepository.findAll()
-                .stream()
-                .filter(publication -> users.contains(publication.getUser()))
-                .map(publication -> new FeedFilterDto(
-                        publication.getPublicationId(),
-                        publication.getUser().getProfessionalName(),
-                        publication.getUser().getProfilePicture(),
-                        publication.getUser().getUsername(),
-                        publication.getUser().getCategory(),
-                        publication.getContent(),
-                        publication.getImageUrl1(),
-                        publication.getImageUrl2(),
-                        publication.getImageUrl3(),
-                        publication.getImageUrl4()
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(publications);
+        return ResponseEntity.ok(publicationRepository.findAllFeedFilterByUsername(username));
     }
 
 
+    @Transactional(readOnly = true)
     @GetMapping("/feed/category/{category}")
     public ResponseEntity<List<FeedFilterDto>> categoryFeed(@PathVariable String category) {
-        var users = userRepository.findAll()
-                .stream()
-                .filter(user -> user.getCategory() != null && user.getCategory().contains(category))
-                .collect(Collectors.toList());
-
-        var publications = publicationRepository.findAll()
-                .stream()
-                .filter(publication -> users.contains(publication.getUser()))
-                .map(publication -> new FeedFilterDto(
-                        publication.getPublicationId(),
-                        publication.getUser().getProfessionalName(),
-                        publication.getUser().getProfilePicture(),
-                        publication.getUser().getUsername(),
-                        publication.getUser().getCategory(),
-                        publication.getContent(),
-                        publication.getImageUrl1(),
-                        publication.getImageUrl2(),
-                        publication.getImageUrl3(),
-                        publication.getImageUrl4()
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(publications);
+        return ResponseEntity.ok(publicationRepository.findAllFeedFilterByCategory(CategoryService.normalizeName(category)));
+    }
+
+    // Mesmas listagens em NDJSON (Accept: application/x-ndjson), escritas à medida que as linhas chegam do banco
+    @GetMapping(value = "/feed/username/{username}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> usernameFeedStream(@PathVariable String username) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(feedStreamService.streamByUsername(username));
     }
 
+    @GetMapping(value = "/feed/category/{category}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> categoryFeedStream(@PathVariable String category) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(feedStreamService.streamByCategory(CategoryService.normalizeName(category)));
+    }
+
+    @Transactional(readOnly = true)
     @GetMapping("/profile/publications/{username}")
-    public ResponseEntity<List<FeedProfileDto>> profileFeed(@PathVariable String username) {
-        var user = userRepository.findByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        var publications = publicationRepository.findAll()
-                .stream()
-                .map(publication -> new FeedProfileDto(
-                        publication.getPublicationId(),
-                        publication.getContent(),
-                        publication.getImageUrl1(),
-                        publication.getImageUrl2(),
-                        publication.getImageUrl3(),
-                        publication.getImageUrl4()
-                ))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(publications);
+    public ResponseEntity<ProfileFeedDto> profileFeed(@PathVariable String username,
+                                                     @RequestParam(value = "page", defaultValue = "0") int page,
+                                                     @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+                                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                                     WebRequest request) {
+        var limitedPageSize = limitPageSize(pageSize);
+        var after = cursor == null ? null : parseCursor(cursor);
+
+        return ConditionalGet.respond(request, contentVersionService.current(ContentVersionService.userScope(username)), () -> {
+            var userId = userRepository.findIdByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            if (after != null) {
+                var feedItems = publicationRepository.findFeedProfileByUserIdAfter(userId, after.creationTimestamp(), after.publicationId(), PageRequest.ofSize(limitedPageSize));
+                return new ProfileFeedDto(feedItems, page, limitedPageSize, -1, -1, nextCursor(feedItems, limitedPageSize, item -> new FeedCursor(item.creationTimestamp(), item.PublicationId())));
+            }
+            var feedItems = publicationRepository.findFeedProfileByUserId(userId, PageRequest.of(page, limitedPageSize));
+            var totalElements = publicationCounterService.countByUser(userId);
+            return new ProfileFeedDto(feedItems, page, limitedPageSize, totalPages(totalElements, limitedPageSize), totalElements,
+                    nextCursor(feedItems, limitedPageSize, item -> new FeedCursor(item.creationTimestamp(), item.PublicationId())));
+        });
     }
 
     @PostMapping(value = "/publications", consumes = {"multipart/form-data"})
+    @PreAuthorize("hasAuthority('SCOPE_premium')")
     public ResponseEntity<Void> createPublication(@RequestParam("content") String content,
                                                   @RequestParam(value = "imageUrl1", required = false) MultipartFile imageUrl1,
                                                   @RequestParam(value = "imageUrl2", required = false) MultipartFile imageUrl2,
                                                   @RequestParam(value = "imageUrl3", required = false) MultipartFile imageUrl3,
                                                   @RequestParam(value = "imageUrl4", required = false) MultipartFile imageUrl4,
                                                   JwtAuthenticationToken token) {
-        var user = userRepository.findById(UUID.fromString(token.getName())).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        if (user.getRoles().stream().noneMatch(role -> role.getName().equals("premium"))) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User does not have PREMIUM role");
-        }
+        var username = usernameFrom(token);
+        var imageUrls = uploadImages(username + "/publications", imageUrl1, imageUrl2, imageUrl3, imageUrl4);
 
-        var publication = new Publication();
-        publication.setUser(user);
-        publication.setContent(content);
+        publicationService.create(UUID.fromString(token.getName()), username, content, imageUrls, imageUrls);
+        return ResponseEntity.ok().build();
+    }
 
-        if (imageUrl1 != null && !imageUrl1.isEmpty() && isValidImageType(imageUrl1.getContentType())) {
-            publication.setImageUrl1(storeFileService.uploadFile(imageUrl1, user.getUsername() + "/publications", UUID.randomUUID().toString()));
-        }
-        if (imageUrl2 != null && !imageUrl2.isEmpty() && isValidImageType(imageUrl2.getContentType())) {
-            publication.setImageUrl2(storeFileService.uploadFile(imageUrl2, user.getUsername() + "/publications", UUID.randomUUID().toString()));
+
+    // Confirma as imagens enviadas direto ao S3 (ver /uploads/intents) e cria ou atualiza a publicação
+    @PostMapping("/uploads/publications")
+    @PreAuthorize("hasAuthority('SCOPE_premium')")
+    public ResponseEntity<Void> finalizePublicationUpload(@RequestBody FinalizePublicationDto dto, JwtAuthenticationToken token) {
+        var imageKeys = dto.imageKeys() == null ? List.<String>of() : dto.imageKeys();
+        if (imageKeys.size() > DirectUploadService.MAX_PUBLICATION_IMAGES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + DirectUploadService.MAX_PUBLICATION_IMAGES + " images are allowed");
         }
-        if (imageUrl3 != null && !imageUrl3.isEmpty() && isValidImageType(imageUrl3.getContentType())) {
-            publication.setImageUrl3(storeFileService.uploadFile(imageUrl3, user.getUsername() + "/publications", UUID.randomUUID().toString()));
+
+        var isNew = dto.publicationId() == null;
+        if (isNew && dto.content() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "content is required");
         }
-        if (imageUrl4 != null && !imageUrl4.isEmpty() && isValidImageType(imageUrl4.getContentType())) {
-            publication.setImageUrl4(storeFileService.uploadFile(imageUrl4, user.getUsername() + "/publications", UUID.randomUUID().toString()));
+
+        var username = usernameFrom(token);
+        var folder = DirectUploadService.folderFor(DirectUploadService.PUBLICATION, username);
+        var imageUrls = new ArrayList<String>(Collections.nCopies(DirectUploadService.MAX_PUBLICATION_IMAGES, null));
+        for (int i = 0; i < imageKeys.size(); i++) {
+            if (imageKeys.get(i) != null) {
+                imageUrls.set(i, directUploadService.verify(imageKeys.get(i), folder));
+            }
         }
 
-        publicationRepository.save(publication);
+        // Os objetos são do cliente e podem já estar em uso (finalize repetido, chave reenviada): nunca são apagados aqui
+        var userId = UUID.fromString(token.getName());
+        if (isNew) {
+            publicationService.create(userId, username, dto.content(), imageUrls, List.of());
+        } else {
+            publicationService.update(dto.publicationId(), userId, username, dto.content(), imageUrls, List.of());
+        }
         return ResponseEntity.ok().build();
     }
 
+    // Tokens emitidos antes do claim "username" existir caem na consulta ao banco
+    private String usernameFrom(JwtAuthenticationToken token) {
+        var username = token.getToken().getClaimAsString(TokenController.USERNAME_CLAIM);
+        if (username != null) {
+            return username;
+        }
+        return userRepository.findUsernameById(UUID.fromString(token.getName())).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
 
     private boolean isValidImageType(String contentType) {
         return contentType.equals("image/png") || contentType.equals("image/jpeg") || contentType.equals("image/svg+xml");
     }
 
+    // Sobe as imagens válidas em paralelo; a posição na lista corresponde a imageUrl1..imageUrl4
+    private List<String> uploadImages(String folder, MultipartFile... images) {
+        var accepted = Arrays.stream(images)
+                .map(image -> image != null && !image.isEmpty() && isValidImageType(image.getContentType()) ? image : null)
+                .toList();
+        return storeFileService.uploadFiles(accepted, folder);
+    }
+
     @PatchMapping(value = "/publications/{id}", consumes = {"multipart/form-data"})
+    @PreAuthorize("hasAuthority('SCOPE_premium')")
     public ResponseEntity<Void> patchPublication(@PathVariable Long id,
                                                  @RequestParam(value = "content", required = false) String content,
                                                  @RequestParam(value = "imageUrl1", required = false) MultipartFile imageUrl1,
@@ -233,60 +296,33 @@ public class PublicationController {
                                                  @RequestParam(value = "imageUrl3", required = false) MultipartFile imageUrl3,
                                                  @RequestParam(value = "imageUrl4", required = false) MultipartFile imageUrl4,
                                                  JwtAuthenticationToken token) {
-        var user = userRepository.findById(UUID.fromString(token.getName())).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        if (user.getRoles().stream().noneMatch(role -> role.getName().equals("premium"))) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User does not have PREMIUM role");
-        }
-
-        var publication = publicationRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        var userId = UUID.fromString(token.getName());
+        publicationService.checkOwner(id, userId);
 
-        if (!publication.getUser().equals(user)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User does not own this publication");
-        }
+        var username = usernameFrom(token);
+        var imageUrls = uploadImages(username + "/publications", imageUrl1, imageUrl2, imageUrl3, imageUrl4);
 
-        if (content != null) {
-            publication.setContent(content);
-        }
-        if (imageUrl1 != null && !imageUrl1.isEmpty() && isValidImageType(imageUrl1.getContentType())) {
-            publication.setImageUrl1(storeFileService.uploadFile(imageUrl1, user.getUsername() + "/publications", UUID.randomUUID().toString()));
-        }
-        if (imageUrl2 != null && !imageUrl2.isEmpty() && isValidImageType(imageUrl2.getContentType())) {
-            publication.setImageUrl2(storeFileService.uploadFile(imageUrl2, user.getUsername() + "/publications", UUID.randomUUID().toString()));
-        }
-        if (imageUrl3 != null && !imageUrl3.isEmpty() && isValidImageType(imageUrl3.getContentType())) {
-            publication.setImageUrl3(storeFileService.uploadFile(imageUrl3, user.getUsername() + "/publications", UUID.randomUUID().toString()));
-        }
-        if (imageUrl4 != null && !imageUrl4.isEmpty() && isValidImageType(imageUrl4.getContentType())) {
-            publication.setImageUrl4(storeFileService.uploadFile(imageUrl4, user.getUsername() + "/publications", UUID.randomUUID().toString()));
-        }
-
-        publicationRepository.save(publication);
+        publicationService.update(id, userId, username, content, imageUrls, imageUrls);
         return ResponseEntity.ok().build();
     }
 
+    @Transactional
     @DeleteMapping("/publications/{id}")
     public ResponseEntity<Void> deletePublication(@PathVariable("id") Long publicationId, JwtAuthenticationToken token) {
-        var user = userRepository.findById(UUID.fromString(token.getName()));
         var publication = publicationRepository.findById(publicationId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        var isAdmin = user.get().getRoles().stream().anyMatch((role -> role.getName().equalsIgnoreCase(Role.Values.ADMIN.name())));
+        var isAdmin = token.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equalsIgnoreCase("SCOPE_" + Role.Values.ADMIN.name()));
 
         if (isAdmin || publication.getUser().getId().equals(UUID.fromString(token.getName()))) {
-            // Deletar imagens do S3
-            if (publication.getImageUrl1() != null && !publication.getImageUrl1().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl1());
-            }
-            if (publication.getImageUrl2() != null && !publication.getImageUrl2().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl2());
-            }
-            if (publication.getImageUrl3() != null && !publication.getImageUrl3().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl3());
-            }
-            if (publication.getImageUrl4() != null && !publication.getImageUrl4().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl4());
-            }
+            // As imagens são removidas do S3 depois do commit, pelo worker do outbox
+            storageCleanupService.enqueue(publication.collectImageUrls());
 
             publicationRepository.delete(publication);
+            publicationCounterService.publicationsChanged(publication.getUser().getId(), -1);
+            timelineService.publicationDeleted(publicationId);
+            feedCacheService.evictFeedPages();
+            feedCacheService.evictUserPublications(publication.getUser().getUsername());
+            searchIndexService.removePublication(publicationId);
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
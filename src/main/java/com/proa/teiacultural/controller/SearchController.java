@@ -0,0 +1,34 @@
+package com.proa.teiacultural.controller;
+
+import com.proa.teiacultural.controller.dto.SearchDto.SearchDto;
+import com.proa.teiacultural.services.SearchIndexService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+public class SearchController {
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final SearchIndexService searchIndexService;
+
+    public SearchController(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchDto> search(@RequestParam("q") String query,
+                                            @RequestParam(value = "type", required = false) String type,
+                                            @RequestParam(value = "page", defaultValue = "0") int page,
+                                            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+        if (type != null && !type.equals(SearchIndexService.PUBLICATION) && !type.equals(SearchIndexService.CREATOR)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "type must be 'publication' or 'creator'");
+        }
+        pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+
+        return ResponseEntity.ok(searchIndexService.search(query, type, Math.max(0, page), pageSize));
+    }
+}
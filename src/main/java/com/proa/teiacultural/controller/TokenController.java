@@ -2,8 +2,12 @@ package com.proa.teiacultural.controller;
 
 import com.proa.teiacultural.controller.dto.LoginRequest;
 import com.proa.teiacultural.controller.dto.LoginResponse;
+import com.proa.teiacultural.controller.dto.RefreshTokenRequest;
 import com.proa.teiacultural.entities.Role;
+import com.proa.teiacultural.entities.User;
 import com.proa.teiacultural.repository.UserRepository;
+import com.proa.teiacultural.services.RefreshTokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -19,14 +23,21 @@ import java.util.stream.Collectors;
 
 @RestController
 public class TokenController {
+    public static final String USERNAME_CLAIM = "username";
+
     private final JwtEncoder jwtEncoder;
     private final UserRepository userRepository;
     private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final RefreshTokenService refreshTokenService;
+
+    @Value("${jwt.access-token.expires-in-seconds}")
+    private long expiresIn;
 
-    public TokenController(JwtEncoder jwtEncoder, UserRepository userRepository, BCryptPasswordEncoder bCryptPasswordEncoder) {
+    public TokenController(JwtEncoder jwtEncoder, UserRepository userRepository, BCryptPasswordEncoder bCryptPasswordEncoder, RefreshTokenService refreshTokenService) {
         this.jwtEncoder = jwtEncoder;
         this.userRepository = userRepository;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("/login")
@@ -38,25 +49,44 @@ public class TokenController {
             throw new BadCredentialsException("Invalid email or password");
         }
 
+        return ResponseEntity.ok(tokenResponse(user.get(), refreshTokenService.issue(user.get())));
+
+    }
+
+    // Renova o access token sem BCrypt: o custo do hash de senha fica restrito ao início de cada sessão
+    @PostMapping("/token/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        var rotation = refreshTokenService.rotate(refreshTokenRequest.refreshToken());
+        return ResponseEntity.ok(tokenResponse(rotation.user(), rotation.refreshToken()));
+    }
+
+    @PostMapping("/token/revoke")
+    public ResponseEntity<Void> revoke(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        refreshTokenService.revoke(refreshTokenRequest.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private LoginResponse tokenResponse(User user, String refreshToken) {
         var now = Instant.now();
-        var expiresIn = 300L;
 
-        var scopes = user.get().getRoles()
+        var scopes = user.getRoles()
                 .stream()
                 .map(Role::getName)
                 .collect(Collectors.joining(" "));
 
         var claims = JwtClaimsSet.builder()
                 .issuer("mybackend")
-                .subject(user.get().getId().toString())
+                .subject(user.getId().toString())
                 .issuedAt(now)
                 .expiresAt(now.plusSeconds(expiresIn))
-                .claim("scope", scopes)
-                .build();
-
-        var jwtValue = jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+                .claim("scope", scopes);
+        // Rotas de escrita usam o username do token para montar as pastas no S3 sem consultar tb_users
+        if (user.getUsername() != null) {
+            claims.claim(USERNAME_CLAIM, user.getUsername());
+        }
 
-        return ResponseEntity.ok(new LoginResponse(jwtValue, expiresIn));
+        var jwtValue = jwtEncoder.encode(JwtEncoderParameters.from(claims.build())).getTokenValue();
 
+        return new LoginResponse(jwtValue, expiresIn, refreshToken, refreshTokenService.getTtlSeconds());
     }
 }
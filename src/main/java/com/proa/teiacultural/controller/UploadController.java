@@ -0,0 +1,39 @@
+package com.proa.teiacultural.controller;
+
+import com.proa.teiacultural.controller.dto.UploadDto.UploadIntentDto;
+import com.proa.teiacultural.controller.dto.UploadDto.UploadIntentResponseDto;
+import com.proa.teiacultural.repository.UserRepository;
+import com.proa.teiacultural.services.DirectUploadService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+@RestController
+public class UploadController {
+    private final DirectUploadService directUploadService;
+    private final UserRepository userRepository;
+
+    public UploadController(DirectUploadService directUploadService, UserRepository userRepository) {
+        this.directUploadService = directUploadService;
+        this.userRepository = userRepository;
+    }
+
+    // Devolve URLs pré-assinadas para o cliente enviar as imagens direto ao S3.
+    // Depois do upload, as chaves são confirmadas em /uploads/publications ou /uploads/profile-picture
+    @PostMapping("/uploads/intents")
+    @PreAuthorize("hasAuthority('SCOPE_premium')")
+    public ResponseEntity<UploadIntentResponseDto> createIntent(@RequestBody UploadIntentDto dto, JwtAuthenticationToken token) {
+        var username = token.getToken().getClaimAsString(TokenController.USERNAME_CLAIM);
+        if (username == null) {
+            username = userRepository.findUsernameById(UUID.fromString(token.getName())).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        }
+        return ResponseEntity.ok(directUploadService.createIntent(dto.target(), username, dto.files()));
+    }
+}
@@ -1,5 +1,7 @@
 package com.proa.teiacultural.controller;
 
+import com.proa.teiacultural.config.CacheConfig;
+import com.proa.teiacultural.controller.dto.UploadDto.FinalizeProfilePictureDto;
 import com.proa.teiacultural.controller.dto.UserDto.*;
 import com.proa.teiacultural.entities.Publication;
 import com.proa.teiacultural.entities.Role;
@@ -7,21 +9,31 @@ import com.proa.teiacultural.entities.User;
 import com.proa.teiacultural.repository.PublicationRepository;
 import com.proa.teiacultural.repository.RoleRepository;
 import com.proa.teiacultural.repository.UserRepository;
+import com.proa.teiacultural.services.CategoryService;
+import com.proa.teiacultural.services.ContentVersionService;
+import com.proa.teiacultural.services.DirectUploadService;
+import com.proa.teiacultural.services.FeedCacheService;
+import com.proa.teiacultural.services.FollowService;
+import com.proa.teiacultural.services.PublicationCounterService;
+import com.proa.teiacultural.services.RefreshTokenService;
+import com.proa.teiacultural.services.SearchIndexService;
+import com.proa.teiacultural.services.StorageCleanupService;
 import com.proa.teiacultural.services.StoreFileService;
-import jakarta.transaction.Transactional;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 public class UserController {
@@ -30,13 +42,31 @@ public class UserController {
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
     private final PublicationRepository publicationRepository;
     private final StoreFileService storeFileService;
-
-    public UserController(UserRepository userRepository, RoleRepository roleRepository, BCryptPasswordEncoder bCryptPasswordEncoder, PublicationRepository publicationRepository, StoreFileService storeFileService) {
+    private final CategoryService categoryService;
+    private final FeedCacheService feedCacheService;
+    private final StorageCleanupService storageCleanupService;
+    private final RefreshTokenService refreshTokenService;
+    private final SearchIndexService searchIndexService;
+    private final DirectUploadService directUploadService;
+    private final ContentVersionService contentVersionService;
+    private final PublicationCounterService publicationCounterService;
+    private final FollowService followService;
+
+    public UserController(UserRepository userRepository, RoleRepository roleRepository, BCryptPasswordEncoder bCryptPasswordEncoder, PublicationRepository publicationRepository, StoreFileService storeFileService, CategoryService categoryService, FeedCacheService feedCacheService, StorageCleanupService storageCleanupService, RefreshTokenService refreshTokenService, SearchIndexService searchIndexService, DirectUploadService directUploadService, ContentVersionService contentVersionService, PublicationCounterService publicationCounterService, FollowService followService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.publicationRepository = publicationRepository;
         this.storeFileService = storeFileService;
+        this.categoryService = categoryService;
+        this.feedCacheService = feedCacheService;
+        this.storageCleanupService = storageCleanupService;
+        this.refreshTokenService = refreshTokenService;
+        this.searchIndexService = searchIndexService;
+        this.directUploadService = directUploadService;
+        this.contentVersionService = contentVersionService;
+        this.publicationCounterService = publicationCounterService;
+        this.followService = followService;
     }
 
     // SCOPE BASIC
@@ -64,38 +94,39 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/users/username/{username}")
-    public ResponseEntity<UserSummaryDto> getUserByUsername(@PathVariable String username) {
-        var user = userRepository.findByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        var userSummary = new UserSummaryDto(user.getId(), user.getUsername(), user.getCategory(), user.getProfessionalName());
-        return ResponseEntity.ok(userSummary);
+    public ResponseEntity<UserSummaryDto> getUserByUsername(@PathVariable String username, WebRequest request) {
+        var version = contentVersionService.current(ContentVersionService.userScope(username));
+        return ConditionalGet.respond(request, version, () -> {
+            var summary = feedCacheService.cached(CacheConfig.USER_SUMMARIES, version, username,
+                    () -> userRepository.findSummaryByUsername(username).orElse(null));
+            if (summary == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            }
+            return summary;
+        });
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/users/category/{category}")
     public ResponseEntity<List<UserSummaryDto>> getUsersByCategory(@PathVariable String category) {
-        var users = userRepository.findAll()
-                .stream()
-                .filter(user -> user.getCategory() != null && user.getCategory().contains(category)) // Verifica se a categoria do usuário não é nula e se contém a categoria fornecida
-                .map(user -> new UserSummaryDto(user.getId(), user.getUsername(), user.getCategory(), user.getProfessionalName()))
-                .collect(Collectors.toList());
-
+        var users = userRepository.findSummariesByCategory(CategoryService.normalizeName(category));
         return ResponseEntity.ok(users);
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/profile/username/{username}")
-    public ResponseEntity<UserProfileDto> getProfileByUsername(@PathVariable String username) {
-        var user = userRepository.findByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        var userProfile = new UserProfileDto(
-                user.getUsername(),
-                user.getEmail(),
-                user.getTelephone(),
-                user.getProfessionalName(),
-                user.getCategory(),
-                user.getAboutMe(),
-                user.getSocialMedia(),
-                user.getLocalization()
-        );
-        return ResponseEntity.ok(userProfile);
+    public ResponseEntity<UserProfileDto> getProfileByUsername(@PathVariable String username, WebRequest request) {
+        var version = contentVersionService.current(ContentVersionService.userScope(username));
+        return ConditionalGet.respond(request, version, () -> {
+            var profile = feedCacheService.cached(CacheConfig.USER_PROFILES, version, username,
+                    () -> userRepository.findProfileByUsername(username).orElse(null));
+            if (profile == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            }
+            return profile;
+        });
     }
 
     // SCOPE PREMIUM
@@ -125,8 +156,12 @@ public class UserController {
         // Remover a role BASIC e adicionar a role PREMIUM
         user.getRoles().remove(basicRole);
         user.getRoles().add(premiumRole);
+        feedCacheService.evictProfile(user.getUsername());
         user.setUsername(dto.username());
         userRepository.save(user);
+        feedCacheService.evictProfile(dto.username());
+        feedCacheService.evictFeedPages();
+        searchIndexService.indexCreator(user);
 
         return ResponseEntity.ok().build();
     }
@@ -149,15 +184,19 @@ public class UserController {
         // Remover a role PREMIUM e adicionar a role BASIC
         user.getRoles().remove(premiumRole);
         user.getRoles().add(basicRole);
+        feedCacheService.evictProfile(user.getUsername());
+        feedCacheService.evictFeedPages();
         user.setUsername(null);
 
         userRepository.save(user);
+        searchIndexService.indexCreator(user);
 
         return ResponseEntity.ok().build();
     }
 
     @Transactional
     @PatchMapping(value = "/users/add-premium-details", consumes = {"multipart/form-data"})
+    @PreAuthorize("hasAuthority('SCOPE_premium')")
     public ResponseEntity<Void> updatePremiumDetailsAuthenticatedUser(Authentication authentication,
                                                                       @RequestParam(value = "professionalName", required = false) String professionalName,
                                                                       @RequestParam(value = "category", required = false) String category,
@@ -168,15 +207,12 @@ public class UserController {
         var userId = UUID.fromString(authentication.getName());
         var user = userRepository.findById(userId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        if (user.getRoles().stream().noneMatch(role -> role.getName().equals("premium"))) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User does not have PREMIUM role");
-        }
-
         if (professionalName != null) {
             user.setProfessionalName(professionalName);
         }
         if (category != null) {
             user.setCategory(category);
+            categoryService.syncCategories(user);
         }
         if (aboutMe != null) {
             user.setAboutMe(aboutMe);
@@ -192,6 +228,32 @@ public class UserController {
         }
 
         userRepository.save(user);
+        feedCacheService.evictProfile(user.getUsername());
+        feedCacheService.evictFeedPages();
+        searchIndexService.indexCreator(user);
+
+        return ResponseEntity.ok().build();
+    }
+
+    // Confirma uma foto de perfil enviada direto ao S3 (ver /uploads/intents)
+    @Transactional
+    @PostMapping("/uploads/profile-picture")
+    @PreAuthorize("hasAuthority('SCOPE_premium')")
+    public ResponseEntity<Void> finalizeProfilePictureUpload(Authentication authentication, @RequestBody FinalizeProfilePictureDto dto) {
+        var userId = UUID.fromString(authentication.getName());
+        var user = userRepository.findById(userId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        var folder = DirectUploadService.folderFor(DirectUploadService.PROFILE, user.getUsername());
+        var previousPicture = user.getProfilePicture();
+        user.setProfilePicture(directUploadService.verify(dto.key(), folder));
+        if (previousPicture != null && !previousPicture.equals(user.getProfilePicture())) {
+            storageCleanupService.enqueue(List.of(previousPicture));
+        }
+
+        userRepository.save(user);
+        feedCacheService.evictProfile(user.getUsername());
+        feedCacheService.evictFeedPages();
+        searchIndexService.indexCreator(user);
 
         return ResponseEntity.ok().build();
     }
@@ -202,6 +264,7 @@ public class UserController {
 
     // SCOPE ADMIN
 
+    @Transactional(readOnly = true)
     @GetMapping("/users")
     @PreAuthorize("hasAuthority('SCOPE_admin')")
     public ResponseEntity<List<User>> listUsers() {
@@ -234,8 +297,12 @@ public class UserController {
         // Remover a role BASIC e adicionar a role PREMIUM
         user.getRoles().remove(basicRole);
         user.getRoles().add(premiumRole);
+        feedCacheService.evictProfile(user.getUsername());
         user.setUsername(dto.username());
         userRepository.save(user);
+        feedCacheService.evictProfile(dto.username());
+        feedCacheService.evictFeedPages();
+        searchIndexService.indexCreator(user);
 
         return ResponseEntity.ok().build();
     }
@@ -259,9 +326,12 @@ public class UserController {
         // Remover a role PREMIUM e adicionar a role BASIC
         user.getRoles().remove(premiumRole);
         user.getRoles().add(basicRole);
+        feedCacheService.evictProfile(user.getUsername());
+        feedCacheService.evictFeedPages();
         user.setUsername(null);
 
         userRepository.save(user);
+        searchIndexService.indexCreator(user);
 
         return ResponseEntity.ok().build();
     }
@@ -283,6 +353,7 @@ public class UserController {
         }
         if (category != null) {
             user.setCategory(category);
+            categoryService.syncCategories(user);
         }
         if (aboutMe != null) {
             user.setAboutMe(aboutMe);
@@ -298,6 +369,9 @@ public class UserController {
         }
 
         userRepository.save(user);
+        feedCacheService.evictProfile(user.getUsername());
+        feedCacheService.evictFeedPages();
+        searchIndexService.indexCreator(user);
 
         return ResponseEntity.ok().build();
     }
@@ -313,29 +387,20 @@ public class UserController {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot delete admin user");
         }
 
-        // Deletar todas as publicações relacionadas ao usuário
-        var publications = publicationRepository.findByUser(user);
-        for (Publication publication : publications) {
-            // Delete images from S3
-            if (publication.getImageUrl1() != null && !publication.getImageUrl1().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl1());
-            }
-            if (publication.getImageUrl2() != null && !publication.getImageUrl2().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl2());
-            }
-            if (publication.getImageUrl3() != null && !publication.getImageUrl3().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl3());
-            }
-            if (publication.getImageUrl4() != null && !publication.getImageUrl4().isEmpty()) {
-                storeFileService.deleteFile(publication.getImageUrl4());
-            }
+        // Deletar todas as publicações relacionadas ao usuário; as imagens vão para o outbox de limpeza do S3
+        var fileUrls = new ArrayList<String>();
+        for (Publication publication : publicationRepository.findByUser(user)) {
+            fileUrls.addAll(publication.collectImageUrls());
         }
-        publicationRepository.deleteByUser(user);
-
-        // Deletar a imagem do perfil do usuário do S3
         if (user.getProfilePicture() != null && !user.getProfilePicture().isEmpty()) {
-            storeFileService.deleteFile(user.getProfilePicture());
+            fileUrls.add(user.getProfilePicture());
         }
+        storageCleanupService.enqueue(fileUrls);
+        publicationCounterService.userRemoved(user.getId());
+        followService.userRemoved(user.getId());
+        publicationRepository.deleteByUser(user);
+
+        refreshTokenService.deleteAllByUserId(user.getId());
 
         // Remover as associações na tabela intermediária tb_users_roles
         user.getRoles().clear();
@@ -343,6 +408,9 @@ public class UserController {
 
         // Deletar o usuário
         userRepository.delete(user);
+        feedCacheService.evictProfile(user.getUsername());
+        feedCacheService.evictFeedPages();
+        searchIndexService.removeUser(user.getId());
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
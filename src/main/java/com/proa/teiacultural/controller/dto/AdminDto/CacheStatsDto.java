@@ -0,0 +1,4 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+public record CacheStatsDto(long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+}
@@ -0,0 +1,9 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ExportPublicationDto(Long publicationId, UUID userId, String username, String content,
+                                   String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4,
+                                   Instant creationTimestamp) {
+}
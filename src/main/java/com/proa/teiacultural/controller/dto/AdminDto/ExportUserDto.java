@@ -0,0 +1,9 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ExportUserDto(UUID id, String email, String name, String cpf, String telephone, String username,
+                            String professionalName, String category, String aboutMe, String socialMedia,
+                            String localization, String profilePicture, List<String> roles) {
+}
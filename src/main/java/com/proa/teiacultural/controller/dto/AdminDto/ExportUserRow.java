@@ -0,0 +1,9 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+import java.util.UUID;
+
+// Uma linha por (usuário, role), em ordem de id; o ExportService junta as linhas consecutivas em um ExportUserDto
+public record ExportUserRow(UUID id, String email, String name, String cpf, String telephone, String username,
+                            String professionalName, String category, String aboutMe, String socialMedia,
+                            String localization, String profilePicture, String role) {
+}
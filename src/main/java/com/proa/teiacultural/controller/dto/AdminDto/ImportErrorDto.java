@@ -0,0 +1,4 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+public record ImportErrorDto(long line, String message) {
+}
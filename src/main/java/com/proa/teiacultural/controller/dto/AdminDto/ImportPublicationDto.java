@@ -0,0 +1,8 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+import java.time.Instant;
+
+// Uma linha do NDJSON de /admin/import/publications; o autor é identificado pelo username
+public record ImportPublicationDto(String username, String content, String imageUrl1, String imageUrl2,
+                                   String imageUrl3, String imageUrl4, Instant creationTimestamp) {
+}
@@ -0,0 +1,7 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+import java.util.List;
+
+// withoutPassword: usuários importados sem hash de senha, que ainda não conseguem fazer login
+public record ImportResultDto(long imported, long skipped, long withoutPassword, List<ImportErrorDto> errors) {
+}
@@ -0,0 +1,10 @@
+package com.proa.teiacultural.controller.dto.AdminDto;
+
+import java.util.List;
+
+// Uma linha do NDJSON de /admin/import/users; "password" precisa ser um hash bcrypt já calculado.
+// Sem "password" a conta é criada sem senha e não consegue fazer login; "username" é obrigatório para premium
+public record ImportUserDto(String email, String password, String name, String cpf, String telephone, String username,
+                            String professionalName, String category, String aboutMe, String socialMedia,
+                            String localization, String profilePicture, List<String> roles) {
+}
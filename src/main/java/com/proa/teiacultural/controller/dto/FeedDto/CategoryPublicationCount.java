@@ -0,0 +1,4 @@
+package com.proa.teiacultural.controller.dto.FeedDto;
+
+public record CategoryPublicationCount(String category, Long count) {
+}
@@ -0,0 +1,28 @@
+package com.proa.teiacultural.controller.dto.FeedDto;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+
+public record FeedCursor(Instant creationTimestamp, long publicationId) {
+
+    // Formato: <epochSecond>.<nanos>_<publicationId>, mantendo a precisão de microssegundos do MySQL
+    public String encode() {
+        return String.format("%d.%09d_%d", creationTimestamp.getEpochSecond(), creationTimestamp.getNano(), publicationId);
+    }
+
+    public static FeedCursor parse(String value) {
+        try {
+            var separator = value.indexOf('_');
+            var dot = value.indexOf('.');
+            if (separator < 0 || dot < 0 || dot > separator) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+            var seconds = Long.parseLong(value.substring(0, dot));
+            var nanos = Long.parseLong(value.substring(dot + 1, separator));
+            var publicationId = Long.parseLong(value.substring(separator + 1));
+            return new FeedCursor(Instant.ofEpochSecond(seconds, nanos), publicationId);
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+}
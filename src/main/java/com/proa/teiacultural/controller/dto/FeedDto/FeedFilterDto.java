@@ -1,5 +1,11 @@
 package com.proa.teiacultural.controller.dto.FeedDto;
 
-public record FeedFilterDto(Long PublicationId, String professionalName, String profilePicture, String username, String category, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4) {
-}
+import java.util.List;
+
+public record FeedFilterDto(Long PublicationId, String professionalName, String profilePicture, String username, String category, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4, List<ImageVariantsDto> imageVariants) {
 
+    public FeedFilterDto(Long PublicationId, String professionalName, String profilePicture, String username, String category, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4, Boolean ready1, Boolean ready2, Boolean ready3, Boolean ready4) {
+        this(PublicationId, professionalName, profilePicture, username, category, content, imageUrl1, imageUrl2, imageUrl3, imageUrl4,
+                ImageVariantsDto.ofAll(imageUrl1, imageUrl2, imageUrl3, imageUrl4, ready1, ready2, ready3, ready4));
+    }
+}
@@ -1,4 +1,12 @@
 package com.proa.teiacultural.controller.dto.FeedDto;
 
-public record FeedItemDto(Long PublicationId, String profilePicture, String professionalName, String username, String category, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4) {
+import java.time.Instant;
+import java.util.List;
+
+public record FeedItemDto(Long PublicationId, String profilePicture, String professionalName, String username, String category, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4, Instant creationTimestamp, List<ImageVariantsDto> imageVariants) {
+
+    public FeedItemDto(Long PublicationId, String profilePicture, String professionalName, String username, String category, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4, Instant creationTimestamp, Boolean ready1, Boolean ready2, Boolean ready3, Boolean ready4) {
+        this(PublicationId, profilePicture, professionalName, username, category, content, imageUrl1, imageUrl2, imageUrl3, imageUrl4, creationTimestamp,
+                ImageVariantsDto.ofAll(imageUrl1, imageUrl2, imageUrl3, imageUrl4, ready1, ready2, ready3, ready4));
+    }
 }
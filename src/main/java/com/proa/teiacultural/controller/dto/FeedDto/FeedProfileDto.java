@@ -1,4 +1,11 @@
 package com.proa.teiacultural.controller.dto.FeedDto;
 
-public record FeedProfileDto(Long PublicationId, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4) {
-}
\ No newline at end of file
+import java.time.Instant;
+import java.util.List;
+
+public record FeedProfileDto(Long PublicationId, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4, Instant creationTimestamp, List<ImageVariantsDto> imageVariants) {
+
+    public FeedProfileDto(Long PublicationId, String content, String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4, Instant creationTimestamp, Boolean ready1, Boolean ready2, Boolean ready3, Boolean ready4) {
+        this(PublicationId, content, imageUrl1, imageUrl2, imageUrl3, imageUrl4, creationTimestamp, ImageVariantsDto.ofAll(imageUrl1, imageUrl2, imageUrl3, imageUrl4, ready1, ready2, ready3, ready4));
+    }
+}
@@ -0,0 +1,35 @@
+package com.proa.teiacultural.controller.dto.FeedDto;
+
+import com.proa.teiacultural.services.ImageDerivativeService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// URLs das versões redimensionadas de uma imagem; seguem a convenção de chaves do ImageDerivativeService.
+// Enquanto as derivadas não foram gravadas, as três larguras apontam para o original
+public record ImageVariantsDto(String w320, String w640, String w1080) {
+
+    public static ImageVariantsDto of(String imageUrl, Boolean ready) {
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return null;
+        }
+        if (!Boolean.TRUE.equals(ready)) {
+            return new ImageVariantsDto(imageUrl, imageUrl, imageUrl);
+        }
+        return new ImageVariantsDto(
+                ImageDerivativeService.derivativeOf(imageUrl, 320),
+                ImageDerivativeService.derivativeOf(imageUrl, 640),
+                ImageDerivativeService.derivativeOf(imageUrl, 1080));
+    }
+
+    // Uma posição por imagem (imageUrl1..imageUrl4), null onde não há imagem
+    public static List<ImageVariantsDto> ofAll(String imageUrl1, String imageUrl2, String imageUrl3, String imageUrl4,
+                                               Boolean ready1, Boolean ready2, Boolean ready3, Boolean ready4) {
+        var variants = new ArrayList<ImageVariantsDto>(4);
+        variants.add(of(imageUrl1, ready1));
+        variants.add(of(imageUrl2, ready2));
+        variants.add(of(imageUrl3, ready3));
+        variants.add(of(imageUrl4, ready4));
+        return variants;
+    }
+}
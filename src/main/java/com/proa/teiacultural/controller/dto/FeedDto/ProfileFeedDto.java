@@ -0,0 +1,6 @@
+package com.proa.teiacultural.controller.dto.FeedDto;
+
+import java.util.List;
+
+public record ProfileFeedDto(List<FeedProfileDto> feedItems, int page, int pageSize, int totalPages, long totalElements, String nextCursor) {
+}
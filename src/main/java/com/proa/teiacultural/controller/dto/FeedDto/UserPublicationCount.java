@@ -0,0 +1,6 @@
+package com.proa.teiacultural.controller.dto.FeedDto;
+
+import java.util.UUID;
+
+public record UserPublicationCount(UUID userId, Long count) {
+}
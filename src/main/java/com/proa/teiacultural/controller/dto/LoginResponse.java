@@ -1,4 +1,4 @@
 package com.proa.teiacultural.controller.dto;
 
-public record LoginResponse(String acessToken, Long expiresIn) {
+public record LoginResponse(String acessToken, Long expiresIn, String refreshToken, Long refreshExpiresIn) {
 }
@@ -0,0 +1,4 @@
+package com.proa.teiacultural.controller.dto;
+
+public record RefreshTokenRequest(String refreshToken) {
+}
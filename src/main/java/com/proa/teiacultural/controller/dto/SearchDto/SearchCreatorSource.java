@@ -0,0 +1,6 @@
+package com.proa.teiacultural.controller.dto.SearchDto;
+
+import java.util.UUID;
+
+public record SearchCreatorSource(UUID id, String username, String professionalName, String profilePicture, String category, String aboutMe, String localization) {
+}
@@ -0,0 +1,6 @@
+package com.proa.teiacultural.controller.dto.SearchDto;
+
+import java.util.List;
+
+public record SearchDto(List<SearchHitDto> results, int page, int pageSize, int totalPages, long totalElements) {
+}
@@ -0,0 +1,7 @@
+package com.proa.teiacultural.controller.dto.SearchDto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record SearchHitDto(String type, double score, Long publicationId, UUID userId, String username, String professionalName, String profilePicture, String category, String content, String imageUrl1, Instant creationTimestamp) {
+}
@@ -0,0 +1,7 @@
+package com.proa.teiacultural.controller.dto.SearchDto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record SearchPublicationSource(Long publicationId, UUID userId, String content, String imageUrl1, Instant creationTimestamp) {
+}
@@ -0,0 +1,4 @@
+package com.proa.teiacultural.controller.dto.UploadDto;
+
+public record FinalizeProfilePictureDto(String key) {
+}
@@ -0,0 +1,8 @@
+package com.proa.teiacultural.controller.dto.UploadDto;
+
+import java.util.List;
+
+// Sem publicationId cria uma publicação; com publicationId atualiza a existente.
+// imageKeys segue a ordem imageUrl1..imageUrl4 (null mantém a imagem atual)
+public record FinalizePublicationDto(Long publicationId, String content, List<String> imageKeys) {
+}
@@ -0,0 +1,4 @@
+package com.proa.teiacultural.controller.dto.UploadDto;
+
+public record UploadFileDto(String contentType, Long contentLength) {
+}
@@ -0,0 +1,7 @@
+package com.proa.teiacultural.controller.dto.UploadDto;
+
+import java.util.List;
+
+// target: "publication" ou "profile"
+public record UploadIntentDto(String target, List<UploadFileDto> files) {
+}
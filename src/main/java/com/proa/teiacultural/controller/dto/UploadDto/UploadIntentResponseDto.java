@@ -0,0 +1,6 @@
+package com.proa.teiacultural.controller.dto.UploadDto;
+
+import java.util.List;
+
+public record UploadIntentResponseDto(List<UploadSlotDto> uploads, long expiresIn) {
+}
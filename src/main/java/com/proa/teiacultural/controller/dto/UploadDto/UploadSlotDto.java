@@ -0,0 +1,5 @@
+package com.proa.teiacultural.controller.dto.UploadDto;
+
+// O PUT em uploadUrl precisa repetir exatamente os headers Content-Type e Content-Length assinados
+public record UploadSlotDto(String key, String uploadUrl, String fileUrl, String contentType, Long contentLength) {
+}
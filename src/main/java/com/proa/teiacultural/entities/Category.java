@@ -0,0 +1,20 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "tb_categories")
+@Getter
+@Setter
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "category_id")
+    private long categoryId;
+
+    @Column(unique = true, nullable = false)
+    private String name;
+}
@@ -0,0 +1,25 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Versão de um conjunto de dados exposto por GET ("feed", "user:<username>"); origem dos ETags
+@Entity
+@Table(name = "tb_content_versions")
+@Getter
+@Setter
+public class ContentVersion {
+
+    @Id
+    @Column(name = "scope_key", length = 191)
+    private String scopeKey;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+}
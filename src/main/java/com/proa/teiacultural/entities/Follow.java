@@ -0,0 +1,41 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+// Aresta do grafo de seguidores; a PK (follower_id, followed_id) atende "quem eu sigo"
+// e o índice invertido atende o fan-out "quem segue este criador"
+@Entity
+@Table(name = "tb_follows", indexes = @Index(name = "idx_follows_followed", columnList = "followed_id, follower_id"))
+@IdClass(Follow.Key.class)
+@Getter
+@Setter
+public class Follow {
+
+    @Id
+    @Column(name = "follower_id")
+    private UUID followerId;
+
+    @Id
+    @Column(name = "followed_id")
+    private UUID followedId;
+
+    @Column(nullable = false)
+    private Instant creationTimestamp;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID followerId;
+        private UUID followedId;
+    }
+}
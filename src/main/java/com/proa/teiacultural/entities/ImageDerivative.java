@@ -0,0 +1,36 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Versões redimensionadas de uma imagem, pela URL do original. Também é a fila de geração:
+// next_attempt_at preenchido = pendente; ready = as três larguras estão no S3
+@Entity
+@Table(name = "tb_image_derivatives", indexes = {
+        @Index(name = "idx_image_derivatives_next_attempt", columnList = "next_attempt_at")
+})
+@Getter
+@Setter
+public class ImageDerivative {
+
+    @Id
+    @Column(name = "image_url", length = 512)
+    private String imageUrl;
+
+    // Autor da publicação: quando as derivadas ficam prontas, o ETag das páginas dele precisa mudar
+    @Column(name = "author_id")
+    private UUID authorId;
+
+    private boolean ready;
+
+    private int attempts;
+
+    private Instant nextAttemptAt;
+
+    @Column(length = 1024)
+    private String lastError;
+}
@@ -3,21 +3,28 @@ package com.proa.teiacultural.entities;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Entity
-@Table(name = "tb_publication")
+@Table(name = "tb_publication", indexes = {
+        @Index(name = "idx_publication_created", columnList = "creation_timestamp, publication_id"),
+        @Index(name = "idx_publication_user_created", columnList = "user_id, creation_timestamp, publication_id")
+})
 @Getter
 @Setter
 public class Publication {
+    // Mesmo nome da sequência implícita de antes; com o otimizador pooled-lo (application.properties)
+    // cada ida à sequência reserva allocationSize ids, e os inserts podem ir em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "publication_seq")
+    @SequenceGenerator(name = "publication_seq", sequenceName = "tb_publication_SEQ", allocationSize = 50)
     @Column(name = "publication_id")
     private long publicationId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -27,6 +34,19 @@ public class Publication {
     private String imageUrl3;
     private String imageUrl4;
 
-    @CreationTimestamp
     private Instant creationTimestamp;
+
+    // Data de criação na inserção, exceto quando já vem preenchida (a importação preserva a data original)
+    @PrePersist
+    void prePersist() {
+        if (creationTimestamp == null) {
+            creationTimestamp = Instant.now();
+        }
+    }
+
+    public List<String> collectImageUrls() {
+        return Stream.of(imageUrl1, imageUrl2, imageUrl3, imageUrl4)
+                .filter(url -> url != null && !url.isEmpty())
+                .toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Total de publicações persistido por escopo ("global", "user:<id>", "category:<nome>");
+// mantido pelo PublicationCounterService para que as páginas não precisem de COUNT(*)
+@Entity
+@Table(name = "tb_publication_counters")
+@Getter
+@Setter
+public class PublicationCounter {
+
+    @Id
+    @Column(name = "counter_key", length = 191)
+    private String counterKey;
+
+    @Column(name = "count_value", nullable = false)
+    private long countValue;
+}
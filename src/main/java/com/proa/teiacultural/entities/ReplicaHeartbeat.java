@@ -0,0 +1,21 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Batimento gravado no primário pelo ReplicaLagMonitor; o valor visível na réplica mede o atraso da replicação
+@Entity
+@Table(name = "tb_replica_heartbeat")
+@Getter
+@Setter
+public class ReplicaHeartbeat {
+
+    @Id
+    private int id;
+
+    @Column(name = "beat_timestamp", nullable = false)
+    private Instant beatTimestamp;
+}
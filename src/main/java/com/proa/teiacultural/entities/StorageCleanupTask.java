@@ -0,0 +1,36 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "tb_storage_cleanup", indexes = {
+        @Index(name = "idx_storage_cleanup_next_attempt", columnList = "next_attempt_at")
+})
+@Getter
+@Setter
+public class StorageCleanupTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "cleanup_id")
+    private long cleanupId;
+
+    @Column(nullable = false, length = 1024)
+    private String fileUrl;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 1024)
+    private String lastError;
+
+    @CreationTimestamp
+    private Instant creationTimestamp;
+}
@@ -0,0 +1,47 @@
+package com.proa.teiacultural.entities;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+// Linha da timeline (/feed/home) de um usuário, gravada no fan-out da publicação.
+// A leitura é um range scan em idx_timeline_owner_created na mesma ordem do feed
+@Entity
+@Table(name = "tb_timeline_entries", indexes = {
+        @Index(name = "idx_timeline_owner_created", columnList = "owner_id, creation_timestamp, publication_id"),
+        @Index(name = "idx_timeline_publication", columnList = "publication_id")
+})
+@IdClass(TimelineEntry.Key.class)
+@Getter
+@Setter
+public class TimelineEntry {
+
+    @Id
+    @Column(name = "owner_id")
+    private UUID ownerId;
+
+    @Id
+    @Column(name = "publication_id")
+    private long publicationId;
+
+    @Column(name = "author_id", nullable = false)
+    private UUID authorId;
+
+    @Column(name = "creation_timestamp", nullable = false)
+    private Instant creationTimestamp;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID ownerId;
+        private long publicationId;
+    }
+}
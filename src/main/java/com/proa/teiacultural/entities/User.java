@@ -1,11 +1,13 @@
 package com.proa.teiacultural.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import com.proa.teiacultural.controller.dto.LoginRequest;
 
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
@@ -43,6 +45,10 @@ public class User {
     private String socialMedia;
     private String localization;
 
+    // Mantido por FollowService; decide entre fan-out na escrita e na leitura da timeline
+    @Column(name = "follower_count", nullable = false)
+    private long followerCount;
+
     @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     @JoinTable(
             name = "tb_users_roles",
@@ -51,7 +57,18 @@ public class User {
     )
     
     private Set<Role> roles;
-    
+
+    // Índice normalizado de "category": permite buscar criadores por categoria sem varrer tb_users.
+    // Fica fora do JSON: é preguiçoso e não é carregado fora de transação
+    @JsonIgnore
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "tb_users_categories",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "category_id"),
+            indexes = @Index(name = "idx_users_categories_category", columnList = "category_id, user_id")
+    )
+    private Set<Category> categories = new HashSet<>();
 
     public boolean isLoginCorrect(LoginRequest loginRequest, PasswordEncoder passwordEncoder) {
         if (loginRequest.password() == null) {
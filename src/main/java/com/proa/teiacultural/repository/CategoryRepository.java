@@ -0,0 +1,14 @@
+package com.proa.teiacultural.repository;
+
+import com.proa.teiacultural.entities.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    List<Category> findByNameIn(Collection<String> names);
+}
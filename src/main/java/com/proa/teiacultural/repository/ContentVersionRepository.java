@@ -0,0 +1,19 @@
+package com.proa.teiacultural.repository;
+
+import com.proa.teiacultural.entities.ContentVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ContentVersionRepository extends JpaRepository<ContentVersion, String> {
+
+    // Upsert atômico: duas escritas concorrentes nunca geram a mesma versão
+    @Modifying
+    @Query(value = "INSERT INTO tb_content_versions (scope_key, version, last_modified) VALUES (:scopeKey, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, last_modified = :now", nativeQuery = true)
+    int bump(String scopeKey, Instant now);
+}
@@ -0,0 +1,42 @@
+package com.proa.teiacultural.repository;
+
+import com.proa.teiacultural.entities.Follow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Follow.Key> {
+
+    // Insere só se a aresta não existir: 1 quando inseriu, 0 quando já existia (inclusive numa corrida)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO tb_follows (follower_id, followed_id, creation_timestamp) " +
+            "VALUES (:followerId, :followedId, :now)", nativeQuery = true)
+    int insertIfAbsent(UUID followerId, UUID followedId, Instant now);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.followerId = :followerId AND f.followedId = :followedId")
+    int deleteByFollowerIdAndFollowedId(UUID followerId, UUID followedId);
+
+    // Criadores grandes que o usuário segue: as publicações deles entram na timeline na leitura.
+    // Os de mais seguidores primeiro, para o limite por página cortar sempre os mesmos
+    @Query("SELECT f.followedId FROM Follow f JOIN User u ON u.id = f.followedId " +
+            "WHERE f.followerId = :followerId AND u.followerCount > :minFollowers " +
+            "ORDER BY u.followerCount DESC, f.followedId")
+    List<UUID> findFollowedWithMoreFollowersThan(UUID followerId, long minFollowers, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount - 1 WHERE u.followerCount > 0 AND u.id IN " +
+            "(SELECT f.followedId FROM Follow f WHERE f.followerId = :followerId)")
+    int decrementFollowedBy(UUID followerId);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.followerId = :userId OR f.followedId = :userId")
+    int deleteAllByUserId(UUID userId);
+}
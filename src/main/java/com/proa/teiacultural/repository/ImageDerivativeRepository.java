@@ -0,0 +1,58 @@
+package com.proa.teiacultural.repository;
+
+import com.proa.teiacultural.entities.ImageDerivative;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ImageDerivativeRepository extends JpaRepository<ImageDerivative, String> {
+
+    @Query("SELECT d FROM ImageDerivative d WHERE d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt")
+    List<ImageDerivative> findDue(Instant now, Pageable pageable);
+
+    // Só uma instância consegue mover o next_attempt_at que leu
+    @Modifying
+    @Query("UPDATE ImageDerivative d SET d.nextAttemptAt = :leaseUntil WHERE d.imageUrl = :imageUrl AND d.nextAttemptAt = :expected")
+    int claim(String imageUrl, Instant expected, Instant leaseUntil);
+
+    @Modifying
+    @Query("UPDATE ImageDerivative d SET d.ready = true, d.nextAttemptAt = null, d.lastError = null WHERE d.imageUrl = :imageUrl")
+    int markReady(String imageUrl);
+
+    // nextAttemptAt nulo: desiste da imagem (a API continua servindo o original)
+    @Modifying
+    @Query("UPDATE ImageDerivative d SET d.attempts = :attempts, d.nextAttemptAt = :nextAttemptAt, d.lastError = :lastError WHERE d.imageUrl = :imageUrl")
+    int markFailed(String imageUrl, int attempts, Instant nextAttemptAt, String lastError);
+
+    // Backfill: imagens de publicações que ainda não têm linha aqui. A mesma URL em publicações de
+    // autores diferentes (importações) vira uma linha só
+    @Modifying
+    @Query("INSERT INTO ImageDerivative (imageUrl, authorId, ready, attempts, nextAttemptAt) " +
+            "SELECT p.imageUrl1, MAX(p.user.id), false, 0, :now FROM Publication p WHERE p.imageUrl1 IS NOT NULL AND p.imageUrl1 <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM ImageDerivative d WHERE d.imageUrl = p.imageUrl1) GROUP BY p.imageUrl1")
+    int backfillImage1(Instant now);
+
+    @Modifying
+    @Query("INSERT INTO ImageDerivative (imageUrl, authorId, ready, attempts, nextAttemptAt) " +
+            "SELECT p.imageUrl2, MAX(p.user.id), false, 0, :now FROM Publication p WHERE p.imageUrl2 IS NOT NULL AND p.imageUrl2 <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM ImageDerivative d WHERE d.imageUrl = p.imageUrl2) GROUP BY p.imageUrl2")
+    int backfillImage2(Instant now);
+
+    @Modifying
+    @Query("INSERT INTO ImageDerivative (imageUrl, authorId, ready, attempts, nextAttemptAt) " +
+            "SELECT p.imageUrl3, MAX(p.user.id), false, 0, :now FROM Publication p WHERE p.imageUrl3 IS NOT NULL AND p.imageUrl3 <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM ImageDerivative d WHERE d.imageUrl = p.imageUrl3) GROUP BY p.imageUrl3")
+    int backfillImage3(Instant now);
+
+    @Modifying
+    @Query("INSERT INTO ImageDerivative (imageUrl, authorId, ready, attempts, nextAttemptAt) " +
+            "SELECT p.imageUrl4, MAX(p.user.id), false, 0, :now FROM Publication p WHERE p.imageUrl4 IS NOT NULL AND p.imageUrl4 <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM ImageDerivative d WHERE d.imageUrl = p.imageUrl4) GROUP BY p.imageUrl4")
+    int backfillImage4(Instant now);
+}
@@ -0,0 +1,33 @@
+package com.proa.teiacultural.repository;
+
+import com.proa.teiacultural.entities.PublicationCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PublicationCounterRepository extends JpaRepository<PublicationCounter, String> {
+
+    // Soma atômica: várias instâncias podem descarregar seus deltas no mesmo contador
+    @Modifying
+    @Query(value = "INSERT INTO tb_publication_counters (counter_key, count_value) VALUES (:counterKey, :delta) " +
+            "ON DUPLICATE KEY UPDATE count_value = count_value + :delta", nativeQuery = true)
+    int add(String counterKey, long delta);
+
+    // Leitura com lock compartilhado: várias transações ao mesmo tempo, mas nenhuma durante um reconcile
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT c FROM PublicationCounter c WHERE c.counterKey = :counterKey")
+    Optional<PublicationCounter> findForShare(String counterKey);
+
+    @Query("SELECT c.countValue FROM PublicationCounter c WHERE c.counterKey = :counterKey")
+    Optional<Long> findCountValue(String counterKey);
+
+    @Modifying
+    @Query("DELETE FROM PublicationCounter c WHERE c.counterKey <> :keep")
+    int deleteAllExcept(String keep);
+}
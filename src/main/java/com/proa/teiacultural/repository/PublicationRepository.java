@@ -1,17 +1,135 @@
 package com.proa.teiacultural.repository;
 
+import com.proa.teiacultural.controller.dto.AdminDto.ExportPublicationDto;
+import com.proa.teiacultural.controller.dto.FeedDto.CategoryPublicationCount;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedFilterDto;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedItemDto;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedProfileDto;
+import com.proa.teiacultural.controller.dto.FeedDto.UserPublicationCount;
+import com.proa.teiacultural.controller.dto.SearchDto.SearchPublicationSource;
 import com.proa.teiacultural.entities.Publication;
 import com.proa.teiacultural.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface PublicationRepository extends JpaRepository<Publication, Long> {
+    // Projeções do feed: uma única consulta com JOIN em tb_users, sem carregar entidades nem roles
+    // Quais imagens já têm derivadas: LEFT JOIN pela chave primária de tb_image_derivatives, null = ainda não
+    String IMAGE_VARIANTS_READY = "d1.ready, d2.ready, d3.ready, d4.ready";
+    String IMAGE_VARIANTS_JOIN = "LEFT JOIN ImageDerivative d1 ON d1.imageUrl = p.imageUrl1 AND d1.ready = true " +
+            "LEFT JOIN ImageDerivative d2 ON d2.imageUrl = p.imageUrl2 AND d2.ready = true " +
+            "LEFT JOIN ImageDerivative d3 ON d3.imageUrl = p.imageUrl3 AND d3.ready = true " +
+            "LEFT JOIN ImageDerivative d4 ON d4.imageUrl = p.imageUrl4 AND d4.ready = true ";
+    String FEED_ITEM_SELECT = "SELECT new com.proa.teiacultural.controller.dto.FeedDto.FeedItemDto(" +
+            "p.publicationId, u.profilePicture, u.professionalName, u.username, u.category, " +
+            "p.content, p.imageUrl1, p.imageUrl2, p.imageUrl3, p.imageUrl4, p.creationTimestamp, " + IMAGE_VARIANTS_READY + ") " +
+            "FROM Publication p JOIN p.user u " + IMAGE_VARIANTS_JOIN;
+    String FEED_FILTER_SELECT = "SELECT new com.proa.teiacultural.controller.dto.FeedDto.FeedFilterDto(" +
+            "p.publicationId, u.professionalName, u.profilePicture, u.username, u.category, " +
+            "p.content, p.imageUrl1, p.imageUrl2, p.imageUrl3, p.imageUrl4, " + IMAGE_VARIANTS_READY + ") " +
+            "FROM Publication p JOIN p.user u " + IMAGE_VARIANTS_JOIN;
+    String FEED_PROFILE_SELECT = "SELECT new com.proa.teiacultural.controller.dto.FeedDto.FeedProfileDto(" +
+            "p.publicationId, p.content, p.imageUrl1, p.imageUrl2, p.imageUrl3, p.imageUrl4, p.creationTimestamp, " + IMAGE_VARIANTS_READY + ") " +
+            "FROM Publication p " + IMAGE_VARIANTS_JOIN;
+    String STREAM_FETCH_SIZE = "500";
+    String FEED_ORDER = "ORDER BY p.creationTimestamp DESC, p.publicationId DESC";
+
     void deleteByUser(User user);
     List<Publication> findByUser(User user);
 
+    // Páginas sem COUNT(*): o total vem do PublicationCounterService
+    @Query(FEED_ITEM_SELECT + FEED_ORDER)
+    List<FeedItemDto> findFeedItems(Pageable pageable);
+
+    @Query(FEED_ITEM_SELECT +
+            "WHERE p.creationTimestamp < :creationTimestamp " +
+            "OR (p.creationTimestamp = :creationTimestamp AND p.publicationId < :publicationId) " +
+            FEED_ORDER)
+    List<FeedItemDto> findFeedItemsAfter(Instant creationTimestamp, long publicationId, Pageable pageable);
+
+    // Fan-out na leitura da timeline (/feed/home): uma consulta por criador grande, cada uma percorrendo
+    // idx_publication_user_created já na ordem do feed; com IN a ordenação precisaria de filesort
+    @Query(FEED_ITEM_SELECT + "WHERE p.user.id = :userId " + FEED_ORDER)
+    List<FeedItemDto> findFeedItemsByUserId(UUID userId, Pageable pageable);
+
+    @Query(FEED_ITEM_SELECT +
+            "WHERE p.user.id = :userId AND (p.creationTimestamp < :creationTimestamp " +
+            "OR (p.creationTimestamp = :creationTimestamp AND p.publicationId < :publicationId)) " +
+            FEED_ORDER)
+    List<FeedItemDto> findFeedItemsByUserIdAfter(UUID userId, Instant creationTimestamp, long publicationId, Pageable pageable);
+
+    @Query("SELECT p.creationTimestamp FROM Publication p WHERE p.user.id = :userId " + FEED_ORDER)
+    List<Instant> findCreationTimestampsByUserId(UUID userId, Pageable pageable);
+
+    @Query(FEED_FILTER_SELECT + "WHERE u.id = :userId " + FEED_ORDER)
+    List<FeedFilterDto> findFeedFilterByUserId(UUID userId, Pageable pageable);
+
+    @Query(FEED_FILTER_SELECT + "JOIN u.categories c WHERE c.name = :category " + FEED_ORDER)
+    List<FeedFilterDto> findFeedFilterByCategory(String category, Pageable pageable);
+
+    @Query(FEED_FILTER_SELECT + "WHERE u.username = :username " + FEED_ORDER)
+    List<FeedFilterDto> findAllFeedFilterByUsername(String username);
+
+    @Query(FEED_FILTER_SELECT + "JOIN u.categories c WHERE c.name = :category " + FEED_ORDER)
+    List<FeedFilterDto> findAllFeedFilterByCategory(String category);
+
+    // Cursor JDBC: com useCursorFetch=true na URL o MySQL entrega STREAM_FETCH_SIZE linhas por vez
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(FEED_FILTER_SELECT + "WHERE u.username = :username " + FEED_ORDER)
+    Stream<FeedFilterDto> streamFeedFilterByUsername(String username);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(FEED_FILTER_SELECT + "JOIN u.categories c WHERE c.name = :category " + FEED_ORDER)
+    Stream<FeedFilterDto> streamFeedFilterByCategory(String category);
+
+    // Usa idx_publication_user_created (user_id, creation_timestamp, publication_id): só lê as linhas da página
+    @Query(FEED_PROFILE_SELECT + "WHERE p.user.id = :userId " + FEED_ORDER)
+    List<FeedProfileDto> findFeedProfileByUserId(UUID userId, Pageable pageable);
+
+    @Query(FEED_PROFILE_SELECT +
+            "WHERE p.user.id = :userId AND (p.creationTimestamp < :creationTimestamp " +
+            "OR (p.creationTimestamp = :creationTimestamp AND p.publicationId < :publicationId)) " +
+            FEED_ORDER)
+    List<FeedProfileDto> findFeedProfileByUserIdAfter(UUID userId, Instant creationTimestamp, long publicationId, Pageable pageable);
+
+    @Query("SELECT new com.proa.teiacultural.controller.dto.SearchDto.SearchPublicationSource(" +
+            "p.publicationId, p.user.id, p.content, p.imageUrl1, p.creationTimestamp) " +
+            "FROM Publication p WHERE p.publicationId > :publicationId ORDER BY p.publicationId")
+    List<SearchPublicationSource> findSearchSourcesAfter(long publicationId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.proa.teiacultural.controller.dto.AdminDto.ExportPublicationDto(" +
+            "p.publicationId, u.id, u.username, p.content, p.imageUrl1, p.imageUrl2, p.imageUrl3, p.imageUrl4, p.creationTimestamp) " +
+            "FROM Publication p JOIN p.user u WHERE p.publicationId > :afterId ORDER BY p.publicationId")
+    Stream<ExportPublicationDto> streamExportAfter(long afterId);
+
+    // Recontagem completa dos contadores (PublicationCounterService.reconcile)
+    @Query("SELECT new com.proa.teiacultural.controller.dto.FeedDto.UserPublicationCount(p.user.id, COUNT(p)) " +
+            "FROM Publication p GROUP BY p.user.id")
+    List<UserPublicationCount> countGroupedByUser();
 
+    @Query("SELECT new com.proa.teiacultural.controller.dto.FeedDto.CategoryPublicationCount(c.name, COUNT(p)) " +
+            "FROM Publication p JOIN p.user u JOIN u.categories c GROUP BY c.name")
+    List<CategoryPublicationCount> countGroupedByCategory();
 }
@@ -0,0 +1,24 @@
+package com.proa.teiacultural.repository;
+
+import com.proa.teiacultural.entities.StorageCleanupTask;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StorageCleanupTaskRepository extends JpaRepository<StorageCleanupTask, Long> {
+
+    // FOR UPDATE SKIP LOCKED (timeout -2): várias instâncias podem drenar a fila sem pegar as mesmas tarefas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM StorageCleanupTask t WHERE t.nextAttemptAt <= :now ORDER BY t.nextAttemptAt")
+    List<StorageCleanupTask> findDue(Instant now, Pageable pageable);
+}
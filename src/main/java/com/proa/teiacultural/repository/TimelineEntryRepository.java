@@ -0,0 +1,74 @@
+package com.proa.teiacultural.repository;
+
+import com.proa.teiacultural.controller.dto.FeedDto.FeedItemDto;
+import com.proa.teiacultural.entities.TimelineEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntry.Key> {
+    String TIMELINE_SELECT = "SELECT new com.proa.teiacultural.controller.dto.FeedDto.FeedItemDto(" +
+            "p.publicationId, u.profilePicture, u.professionalName, u.username, u.category, " +
+            "p.content, p.imageUrl1, p.imageUrl2, p.imageUrl3, p.imageUrl4, p.creationTimestamp, " +
+            PublicationRepository.IMAGE_VARIANTS_READY + ") " +
+            "FROM TimelineEntry t JOIN Publication p ON p.publicationId = t.publicationId JOIN p.user u " +
+            PublicationRepository.IMAGE_VARIANTS_JOIN +
+            "WHERE t.ownerId = :ownerId ";
+    String TIMELINE_ORDER = "ORDER BY t.creationTimestamp DESC, t.publicationId DESC";
+
+    // Fan-out na escrita: um único INSERT ... SELECT copia a publicação para a timeline de cada seguidor
+    @Modifying
+    @Query("INSERT INTO TimelineEntry (ownerId, publicationId, authorId, creationTimestamp) " +
+            "SELECT f.followerId, p.publicationId, f.followedId, p.creationTimestamp " +
+            "FROM Follow f JOIN Publication p ON p.user.id = f.followedId " +
+            "WHERE p.publicationId = :publicationId AND NOT EXISTS " +
+            "(SELECT 1 FROM TimelineEntry t WHERE t.ownerId = f.followerId AND t.publicationId = p.publicationId)")
+    int fanOut(long publicationId);
+
+    // Fan-out de um lote (importação): só autores abaixo do limite de fan-out na escrita
+    @Modifying
+    @Query("INSERT INTO TimelineEntry (ownerId, publicationId, authorId, creationTimestamp) " +
+            "SELECT f.followerId, p.publicationId, f.followedId, p.creationTimestamp " +
+            "FROM Follow f JOIN Publication p ON p.user.id = f.followedId JOIN User u ON u.id = f.followedId " +
+            "WHERE p.publicationId IN :publicationIds AND u.followerCount <= :maxFollowers AND NOT EXISTS " +
+            "(SELECT 1 FROM TimelineEntry t WHERE t.ownerId = f.followerId AND t.publicationId = p.publicationId)")
+    int fanOutAll(Collection<Long> publicationIds, long maxFollowers);
+
+    // Ao seguir alguém, as publicações recentes dele (a partir de :since) entram na timeline
+    @Modifying
+    @Query("INSERT INTO TimelineEntry (ownerId, publicationId, authorId, creationTimestamp) " +
+            "SELECT :ownerId, p.publicationId, p.user.id, p.creationTimestamp FROM Publication p " +
+            "WHERE p.user.id = :authorId AND p.creationTimestamp >= :since AND NOT EXISTS " +
+            "(SELECT 1 FROM TimelineEntry t WHERE t.ownerId = :ownerId AND t.publicationId = p.publicationId)")
+    int backfill(UUID ownerId, UUID authorId, Instant since);
+
+    @Query(TIMELINE_SELECT + TIMELINE_ORDER)
+    List<FeedItemDto> findTimeline(UUID ownerId, Pageable pageable);
+
+    @Query(TIMELINE_SELECT +
+            "AND (t.creationTimestamp < :creationTimestamp " +
+            "OR (t.creationTimestamp = :creationTimestamp AND t.publicationId < :publicationId)) " +
+            TIMELINE_ORDER)
+    List<FeedItemDto> findTimelineAfter(UUID ownerId, Instant creationTimestamp, long publicationId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerId = :ownerId AND t.authorId = :authorId")
+    int deleteByOwnerIdAndAuthorId(UUID ownerId, UUID authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.publicationId = :publicationId")
+    int deleteByPublicationId(long publicationId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerId = :userId OR t.publicationId IN " +
+            "(SELECT p.publicationId FROM Publication p WHERE p.user.id = :userId)")
+    int deleteAllByUserId(UUID userId);
+}
@@ -1,15 +1,90 @@
 package com.proa.teiacultural.repository;
 
+import com.proa.teiacultural.controller.dto.AdminDto.ExportUserRow;
+import com.proa.teiacultural.controller.dto.SearchDto.SearchCreatorSource;
+import com.proa.teiacultural.controller.dto.UserDto.UserProfileDto;
+import com.proa.teiacultural.controller.dto.UserDto.UserSummaryDto;
 import com.proa.teiacultural.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsername(String username); 
+
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<UUID> findIdByUsername(String username);
+
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findUsernameById(UUID id);
+
+    @Query("SELECT new com.proa.teiacultural.controller.dto.UserDto.UserSummaryDto(u.id, u.username, u.category, u.professionalName) " +
+            "FROM User u WHERE u.username = :username")
+    Optional<UserSummaryDto> findSummaryByUsername(String username);
+
+    @Query("SELECT new com.proa.teiacultural.controller.dto.UserDto.UserProfileDto(" +
+            "u.username, u.email, u.telephone, u.professionalName, u.category, u.aboutMe, u.socialMedia, u.localization) " +
+            "FROM User u WHERE u.username = :username")
+    Optional<UserProfileDto> findProfileByUsername(String username);
+
+    @Query("SELECT new com.proa.teiacultural.controller.dto.UserDto.UserSummaryDto(u.id, u.username, u.category, u.professionalName) " +
+            "FROM User u JOIN u.categories c WHERE c.name = :category")
+    List<UserSummaryDto> findSummariesByCategory(String category);
+
+    @Query("SELECT new com.proa.teiacultural.controller.dto.SearchDto.SearchCreatorSource(" +
+            "u.id, u.username, u.professionalName, u.profilePicture, u.category, u.aboutMe, u.localization) " +
+            "FROM User u WHERE u.username > :username ORDER BY u.username")
+    List<SearchCreatorSource> findSearchSourcesAfter(String username, Pageable pageable);
+
+    // Exportação (/admin/export/users): cursor JDBC em ordem de id, retomável a partir do último id recebido
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PublicationRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.proa.teiacultural.controller.dto.AdminDto.ExportUserRow(" +
+            "u.id, u.email, u.name, u.cpf, u.telephone, u.username, u.professionalName, u.category, " +
+            "u.aboutMe, u.socialMedia, u.localization, u.profilePicture, r.name) " +
+            "FROM User u LEFT JOIN u.roles r WHERE u.id > :afterId ORDER BY u.id, r.name")
+    Stream<ExportUserRow> streamExportRowsAfter(UUID afterId);
+
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :id")
+    Optional<Long> findFollowerCountById(UUID id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + :delta WHERE u.id = :id")
+    int addFollowers(UUID id, long delta);
+
+    @Query("SELECT c.name FROM User u JOIN u.categories c WHERE u.id = :id")
+    List<String> findCategoryNamesById(UUID id);
+
+    // Importação em massa: chaves únicas que já existem, checadas por lote antes do insert
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findEmailsIn(Collection<String> emails);
+
+    @Query("SELECT u.cpf FROM User u WHERE u.cpf IN :cpfs")
+    List<String> findCpfsIn(Collection<String> cpfs);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findUsernamesIn(Collection<String> usernames);
+
+    @Query("SELECT new com.proa.teiacultural.controller.dto.UserDto.UserSummaryDto(u.id, u.username, u.category, u.professionalName) " +
+            "FROM User u WHERE u.username IN :usernames")
+    List<UserSummaryDto> findSummariesByUsernameIn(Collection<String> usernames);
+
+    @Query("SELECT u FROM User u WHERE u.category IS NOT NULL AND u.categories IS EMPTY")
+    List<User> findWithUnindexedCategory();
 }
@@ -0,0 +1,344 @@
+package com.proa.teiacultural.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.proa.teiacultural.controller.dto.AdminDto.ImportErrorDto;
+import com.proa.teiacultural.controller.dto.AdminDto.ImportPublicationDto;
+import com.proa.teiacultural.controller.dto.AdminDto.ImportResultDto;
+import com.proa.teiacultural.controller.dto.AdminDto.ImportUserDto;
+import com.proa.teiacultural.controller.dto.UserDto.UserSummaryDto;
+import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.entities.Role;
+import com.proa.teiacultural.entities.User;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.RoleRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Importação em massa (migração de criadores de outra plataforma): o NDJSON é lido linha a linha,
+// cada lote de import.chunk-size linhas vira uma transação com inserts em lote JDBC, e linhas inválidas
+// são puladas e reportadas sem derrubar o restante do arquivo
+@Service
+public class BulkImportService {
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    private static final Set<String> IMPORTABLE_ROLES = Set.of(Role.Values.BASIC.name(), Role.Values.PREMIUM.name());
+
+    private final UserRepository userRepository;
+    private final PublicationRepository publicationRepository;
+    private final RoleRepository roleRepository;
+    private final CategoryService categoryService;
+    private final SearchIndexService searchIndexService;
+    private final FeedCacheService feedCacheService;
+    private final PublicationCounterService publicationCounterService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final TimelineService timelineService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${import.chunk-size}")
+    private int chunkSize;
+
+    public BulkImportService(UserRepository userRepository, PublicationRepository publicationRepository, RoleRepository roleRepository,
+                             CategoryService categoryService, SearchIndexService searchIndexService, FeedCacheService feedCacheService,
+                             PublicationCounterService publicationCounterService, ImageDerivativeService imageDerivativeService,
+                             TimelineService timelineService, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.publicationRepository = publicationRepository;
+        this.roleRepository = roleRepository;
+        this.categoryService = categoryService;
+        this.searchIndexService = searchIndexService;
+        this.feedCacheService = feedCacheService;
+        this.publicationCounterService = publicationCounterService;
+        this.imageDerivativeService = imageDerivativeService;
+        this.timelineService = timelineService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record Line<T>(long number, T value) {
+    }
+
+    private record ChunkOutcome(int imported, int withoutPassword, List<ImportErrorDto> skipped) {
+    }
+
+    // Contadores e erros de uma importação; só os primeiros MAX_REPORTED_ERRORS erros são devolvidos
+    private static class Result {
+        private long imported;
+        private long skipped;
+        private long withoutPassword;
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+
+        // Só contabiliza depois do commit do lote
+        void add(ChunkOutcome outcome) {
+            imported += outcome.imported();
+            withoutPassword += outcome.withoutPassword();
+            outcome.skipped().forEach(error -> skip(error.line(), error.message()));
+        }
+
+        void skip(long line, String message) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportErrorDto(line, message));
+            }
+        }
+
+        ImportResultDto toDto() {
+            errors.sort(Comparator.comparingLong(ImportErrorDto::line));
+            return new ImportResultDto(imported, skipped, withoutPassword, errors);
+        }
+    }
+
+    public ImportResultDto importUsers(InputStream inputStream) throws IOException {
+        var result = new Result();
+        readChunks(inputStream, ImportUserDto.class, result, chunk -> importUserChunk(chunk, result));
+        return result.toDto();
+    }
+
+    public ImportResultDto importPublications(InputStream inputStream) throws IOException {
+        var result = new Result();
+        readChunks(inputStream, ImportPublicationDto.class, result, chunk -> importPublicationChunk(chunk, result));
+        return result.toDto();
+    }
+
+    private <T> void readChunks(InputStream inputStream, Class<T> type, Result result, Consumer<List<Line<T>>> importChunk) throws IOException {
+        ObjectReader objectReader = objectMapper.readerFor(type);
+        var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        var chunk = new ArrayList<Line<T>>(chunkSize);
+        long number = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            number++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                T value = objectReader.readValue(text);
+                chunk.add(new Line<>(number, value));
+            } catch (JsonProcessingException e) {
+                result.skip(number, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (chunk.size() >= chunkSize) {
+                importChunk.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk.accept(chunk);
+        }
+    }
+
+    private void importUserChunk(List<Line<ImportUserDto>> chunk, Result result) {
+        try {
+            result.add(transactionTemplate.execute(status -> {
+                var roles = new HashMap<String, Role>();
+                for (Role role : roleRepository.findAll()) {
+                    roles.put(role.getName().toUpperCase(Locale.ROOT), role);
+                }
+                // E-mail, CPF e username são únicos; o MySQL compara sem diferenciar maiúsculas
+                var emails = lowerCase(userRepository.findEmailsIn(collect(chunk, ImportUserDto::email)));
+                var cpfs = new HashSet<>(userRepository.findCpfsIn(collect(chunk, ImportUserDto::cpf)));
+                var usernames = lowerCase(userRepository.findUsernamesIn(collect(chunk, ImportUserDto::username)));
+
+                var users = new ArrayList<User>(chunk.size());
+                var skipped = new ArrayList<ImportErrorDto>();
+                for (Line<ImportUserDto> line : chunk) {
+                    var dto = line.value();
+                    var error = validateUser(dto, roles);
+                    if (error == null && !emails.add(dto.email().toLowerCase(Locale.ROOT))) {
+                        error = "Email already exists";
+                    }
+                    if (error == null && !cpfs.add(dto.cpf())) {
+                        error = "CPF already exists";
+                    }
+                    if (error == null && dto.username() != null && !usernames.add(dto.username().toLowerCase(Locale.ROOT))) {
+                        error = "Username already exists";
+                    }
+                    if (error != null) {
+                        skipped.add(new ImportErrorDto(line.number(), error));
+                        continue;
+                    }
+                    users.add(toUser(dto, roles));
+                }
+
+                userRepository.saveAll(users);
+                var withoutPassword = 0;
+                for (User user : users) {
+                    if (user.getUsername() != null) {
+                        searchIndexService.indexCreator(user);
+                    }
+                    if (user.getPassword() == null) {
+                        withoutPassword++;
+                    }
+                }
+                return new ChunkOutcome(users.size(), withoutPassword, skipped);
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            skipChunk(chunk, result, e);
+        }
+    }
+
+    private String validateUser(ImportUserDto dto, Map<String, Role> roles) {
+        if (isBlank(dto.email()) || isBlank(dto.name()) || isBlank(dto.cpf()) || isBlank(dto.telephone())) {
+            return "email, name, cpf and telephone are required";
+        }
+        // Senhas em texto puro nunca entram. Sem hash (caso da exportação, que não leva senhas) a conta é criada
+        // mas não consegue fazer login; essas contas são contadas em withoutPassword no resultado
+        if (dto.password() != null && !BCRYPT_HASH.matcher(dto.password()).matches()) {
+            return "password must be a bcrypt hash";
+        }
+        if (dto.roles() != null) {
+            for (String role : dto.roles()) {
+                var name = role == null ? "" : role.toUpperCase(Locale.ROOT);
+                if (!IMPORTABLE_ROLES.contains(name) || !roles.containsKey(name)) {
+                    return "Unsupported role: " + role;
+                }
+            }
+            // Perfis, feed e busca de criadores premium são endereçados pelo username
+            if (dto.roles().stream().anyMatch(Role.Values.PREMIUM.name()::equalsIgnoreCase) && isBlank(dto.username())) {
+                return "username is required for premium users";
+            }
+        }
+        return null;
+    }
+
+    private User toUser(ImportUserDto dto, Map<String, Role> roles) {
+        var user = new User();
+        user.setEmail(dto.email());
+        user.setPassword(dto.password());
+        user.setName(dto.name());
+        user.setCpf(dto.cpf());
+        user.setTelephone(dto.telephone());
+        user.setUsername(dto.username());
+        user.setProfessionalName(dto.professionalName());
+        user.setCategory(dto.category());
+        user.setAboutMe(dto.aboutMe());
+        user.setSocialMedia(dto.socialMedia());
+        user.setLocalization(dto.localization());
+        user.setProfilePicture(dto.profilePicture());
+
+        var userRoles = new HashSet<Role>();
+        if (dto.roles() == null || dto.roles().isEmpty()) {
+            userRoles.add(roles.get(Role.Values.BASIC.name()));
+        } else {
+            for (String role : dto.roles()) {
+                userRoles.add(roles.get(role.toUpperCase(Locale.ROOT)));
+            }
+        }
+        user.setRoles(userRoles);
+        categoryService.syncCategories(user);
+        return user;
+    }
+
+    private void importPublicationChunk(List<Line<ImportPublicationDto>> chunk, Result result) {
+        try {
+            result.add(transactionTemplate.execute(status -> {
+                var authors = new HashMap<String, UserSummaryDto>();
+                for (UserSummaryDto author : userRepository.findSummariesByUsernameIn(collect(chunk, ImportPublicationDto::username))) {
+                    authors.put(author.username().toLowerCase(Locale.ROOT), author);
+                }
+
+                var publications = new ArrayList<Publication>(chunk.size());
+                var importedByAuthor = new HashMap<UserSummaryDto, Long>();
+                var skipped = new ArrayList<ImportErrorDto>();
+                for (Line<ImportPublicationDto> line : chunk) {
+                    var dto = line.value();
+                    var author = dto.username() == null ? null : authors.get(dto.username().toLowerCase(Locale.ROOT));
+                    if (author == null) {
+                        skipped.add(new ImportErrorDto(line.number(), "Unknown username: " + dto.username()));
+                        continue;
+                    }
+                    var publication = new Publication();
+                    publication.setUser(userRepository.getReferenceById(author.id()));
+                    publication.setContent(dto.content());
+                    publication.setImageUrl1(dto.imageUrl1());
+                    publication.setImageUrl2(dto.imageUrl2());
+                    publication.setImageUrl3(dto.imageUrl3());
+                    publication.setImageUrl4(dto.imageUrl4());
+                    publication.setCreationTimestamp(dto.creationTimestamp());
+                    publications.add(publication);
+                    importedByAuthor.merge(author, 1L, Long::sum);
+                }
+
+                publicationRepository.saveAll(publications);
+                var imageUrlsByAuthor = new HashMap<UUID, List<String>>();
+                for (Publication publication : publications) {
+                    searchIndexService.indexPublication(publication);
+                    imageUrlsByAuthor.computeIfAbsent(publication.getUser().getId(), id -> new ArrayList<>())
+                            .addAll(Arrays.asList(publication.getImageUrl1(), publication.getImageUrl2(), publication.getImageUrl3(), publication.getImageUrl4()));
+                }
+                imageUrlsByAuthor.forEach(imageDerivativeService::enqueue);
+                timelineService.publicationsImported(publications.stream().map(Publication::getPublicationId).toList());
+                if (!publications.isEmpty()) {
+                    feedCacheService.evictFeedPages();
+                }
+                importedByAuthor.forEach((author, imported) -> {
+                    publicationCounterService.publicationsChanged(author.id(), imported);
+                    feedCacheService.evictUserPublications(author.username());
+                });
+                return new ChunkOutcome(publications.size(), 0, skipped);
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            skipChunk(chunk, result, e);
+        }
+    }
+
+    // O lote inteiro foi desfeito (erro do banco ou falha no commit); as linhas são reportadas para reenviar depois de corrigidas
+    private void skipChunk(List<? extends Line<?>> chunk, Result result, NestedRuntimeException e) {
+        var message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+        for (Line<?> line : chunk) {
+            result.skip(line.number(), message);
+        }
+    }
+
+    private static <T> Set<String> collect(List<Line<T>> chunk, Function<T, String> key) {
+        var keys = new LinkedHashSet<String>();
+        for (Line<T> line : chunk) {
+            var value = key.apply(line.value());
+            if (value != null) {
+                keys.add(value);
+            }
+        }
+        return keys;
+    }
+
+    private static Set<String> lowerCase(List<String> values) {
+        var result = new HashSet<String>();
+        for (String value : values) {
+            result.add(value.toLowerCase(Locale.ROOT));
+        }
+        return result;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
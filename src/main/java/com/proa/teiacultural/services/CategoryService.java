@@ -0,0 +1,81 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.entities.Category;
+import com.proa.teiacultural.entities.User;
+import com.proa.teiacultural.repository.CategoryRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class CategoryService {
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final PublicationCounterService publicationCounterService;
+
+    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository, PublicationCounterService publicationCounterService) {
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.publicationCounterService = publicationCounterService;
+    }
+
+    // "Música, Dança" -> ["música", "dança"]
+    public static Set<String> parseNames(String category) {
+        if (category == null) {
+            return Set.of();
+        }
+        return Arrays.stream(category.split("[,;/|]"))
+                .map(CategoryService::normalizeName)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Mantém tb_users_categories em sincronia com o texto livre de User.category
+    @Transactional
+    public void syncCategories(User user) {
+        var names = parseNames(user.getCategory());
+        var categories = new HashSet<Category>();
+        if (!names.isEmpty()) {
+            categories.addAll(categoryRepository.findByNameIn(names));
+        }
+        var existing = categories.stream().map(Category::getName).collect(Collectors.toSet());
+
+        for (String name : names) {
+            if (!existing.contains(name)) {
+                var category = new Category();
+                category.setName(name);
+                categories.add(categoryRepository.save(category));
+            }
+        }
+
+        if (user.getId() != null) {
+            var previous = user.getCategories().stream().map(Category::getName).collect(Collectors.toSet());
+            var removed = new HashSet<>(previous);
+            removed.removeAll(names);
+            var added = new HashSet<>(names);
+            added.removeAll(previous);
+            publicationCounterService.categoriesChanged(user.getId(), removed, added);
+        }
+
+        user.getCategories().clear();
+        user.getCategories().addAll(categories);
+    }
+
+    @Transactional
+    public void backfill() {
+        for (User user : userRepository.findWithUnindexedCategory()) {
+            syncCategories(user);
+        }
+    }
+}
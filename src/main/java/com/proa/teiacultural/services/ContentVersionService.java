@@ -0,0 +1,45 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.repository.ContentVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// Versões usadas nos GETs condicionais: cada escrita incrementa a versão do escopo na mesma transação,
+// e o ETag/Last-Modified sai daqui sem montar o DTO
+@Service
+public class ContentVersionService {
+    public static final String FEED = "feed";
+
+    private final ContentVersionRepository contentVersionRepository;
+
+    public ContentVersionService(ContentVersionRepository contentVersionRepository) {
+        this.contentVersionRepository = contentVersionRepository;
+    }
+
+    public record Version(long version, Instant lastModified) {
+        public String etag() {
+            return "\"" + version + "\"";
+        }
+    }
+
+    // Perfil, resumo e publicações de um criador
+    public static String userScope(String username) {
+        return "user:" + username;
+    }
+
+    @Transactional
+    public void bump(String scopeKey) {
+        // Last-Modified trafega com precisão de segundos
+        contentVersionRepository.bump(scopeKey, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Transactional(readOnly = true)
+    public Version current(String scopeKey) {
+        return contentVersionRepository.findById(scopeKey)
+                .map(contentVersion -> new Version(contentVersion.getVersion(), contentVersion.getLastModified()))
+                .orElse(new Version(0, Instant.EPOCH));
+    }
+}
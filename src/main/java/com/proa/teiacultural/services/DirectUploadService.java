@@ -0,0 +1,88 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.controller.dto.UploadDto.UploadFileDto;
+import com.proa.teiacultural.controller.dto.UploadDto.UploadIntentResponseDto;
+import com.proa.teiacultural.controller.dto.UploadDto.UploadSlotDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Uploads direto do cliente para o S3: a aplicação só assina as URLs e depois confere o que chegou no bucket
+@Service
+public class DirectUploadService {
+    public static final String PUBLICATION = "publication";
+    public static final String PROFILE = "profile";
+    public static final int MAX_PUBLICATION_IMAGES = 4;
+
+    private static final Set<String> IMAGE_TYPES = Set.of("image/png", "image/jpeg", "image/svg+xml");
+    private static final Pattern UUID_SUFFIX = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    private final StoreFileService storeFileService;
+
+    @Value("${uploads.presign-ttl-seconds}")
+    private long presignTtlSeconds;
+
+    @Value("${uploads.max-size-bytes}")
+    private long maxSizeBytes;
+
+    public DirectUploadService(StoreFileService storeFileService) {
+        this.storeFileService = storeFileService;
+    }
+
+    // Mesmas pastas usadas pelos uploads multipart
+    public static String folderFor(String target, String username) {
+        return switch (target == null ? "" : target) {
+            case PUBLICATION -> username + "/publications";
+            case PROFILE -> username + "/profile";
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "target must be 'publication' or 'profile'");
+        };
+    }
+
+    public UploadIntentResponseDto createIntent(String target, String username, List<UploadFileDto> files) {
+        var folder = folderFor(target, username);
+        var maxFiles = PUBLICATION.equals(target) ? MAX_PUBLICATION_IMAGES : 1;
+        if (files == null || files.isEmpty() || files.size() > maxFiles) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Between 1 and " + maxFiles + " files are allowed");
+        }
+
+        var expiresIn = Duration.ofSeconds(presignTtlSeconds);
+        var uploads = new ArrayList<UploadSlotDto>();
+        for (UploadFileDto file : files) {
+            validate(file.contentType(), file.contentLength());
+            var key = folder + UUID.randomUUID();
+            var uploadUrl = storeFileService.presignUpload(key, file.contentType(), file.contentLength(), expiresIn);
+            uploads.add(new UploadSlotDto(key, uploadUrl, storeFileService.fileUrl(key), file.contentType(), file.contentLength()));
+        }
+        return new UploadIntentResponseDto(uploads, presignTtlSeconds);
+    }
+
+    // Confere que a chave pertence à pasta do usuário e que o objeto existe no bucket; retorna a URL pública
+    public String verify(String key, String folder) {
+        if (key == null || !key.startsWith(folder) || !UUID_SUFFIX.matcher(key.substring(folder.length())).matches()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Key is outside the user's upload folder");
+        }
+        var head = storeFileService.headFile(key);
+        if (head == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Upload not found: " + key);
+        }
+        validate(head.contentType(), head.contentLength());
+        return storeFileService.fileUrl(key);
+    }
+
+    private void validate(String contentType, Long contentLength) {
+        if (contentType == null || !IMAGE_TYPES.contains(contentType)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported content type: " + contentType);
+        }
+        if (contentLength == null || contentLength <= 0 || contentLength > maxSizeBytes) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File size must be between 1 and " + maxSizeBytes + " bytes");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.proa.teiacultural.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.proa.teiacultural.config.Bulkhead;
+import com.proa.teiacultural.controller.dto.AdminDto.ExportPublicationDto;
+import com.proa.teiacultural.controller.dto.AdminDto.ExportUserDto;
+import com.proa.teiacultural.controller.dto.AdminDto.ExportUserRow;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Exportação completa (backup) de usuários e publicações: cursor JDBC em ordem de id, gzip em NDJSON ou CSV.
+// Nenhuma linha fica acumulada em memória e o download pode ser retomado com afterId = último id recebido.
+// Hashes de senha nunca são exportados.
+@Service
+public class ExportService {
+    private static final int FLUSH_EVERY = 1000;
+    private static final UUID FIRST_USER_ID = new UUID(0, 0);
+
+    private static final List<String> USER_COLUMNS = List.of("id", "email", "name", "cpf", "telephone", "username",
+            "professionalName", "category", "aboutMe", "socialMedia", "localization", "profilePicture", "roles");
+    private static final List<String> PUBLICATION_COLUMNS = List.of("publicationId", "userId", "username", "content",
+            "imageUrl1", "imageUrl2", "imageUrl3", "imageUrl4", "creationTimestamp");
+
+    public enum Format {
+        NDJSON("ndjson"), CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            for (Format value : values()) {
+                if (value.extension.equalsIgnoreCase(format)) {
+                    return value;
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final PublicationRepository publicationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final Bulkhead bulkhead;
+
+    public ExportService(UserRepository userRepository, PublicationRepository publicationRepository, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry, @Value("${export.max-concurrent}") int maxConcurrent, @Value("${export.max-wait-ms}") long maxWaitMs) {
+        this.userRepository = userRepository;
+        this.publicationRepository = publicationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // Cada exportação segura uma conexão do pool do começo ao fim; o limite preserva o pool para a API
+        this.bulkhead = new Bulkhead("export", maxConcurrent, Duration.ofMillis(maxWaitMs));
+        this.bulkhead.bindTo(meterRegistry);
+    }
+
+    public void exportUsers(UUID afterId, Format format, OutputStream outputStream) {
+        var objectWriter = objectMapper.writerFor(ExportUserDto.class);
+        export(() -> userRepository.streamExportRowsAfter(afterId == null ? FIRST_USER_ID : afterId),
+                rows -> new UserGroupingIterator(rows.iterator()),
+                format, USER_COLUMNS, objectWriter, user -> Arrays.asList(
+                        user.id(), user.email(), user.name(), user.cpf(), user.telephone(), user.username(),
+                        user.professionalName(), user.category(), user.aboutMe(), user.socialMedia(),
+                        user.localization(), user.profilePicture(), String.join("|", user.roles())),
+                outputStream);
+    }
+
+    public void exportPublications(Long afterId, Format format, OutputStream outputStream) {
+        var objectWriter = objectMapper.writerFor(ExportPublicationDto.class);
+        export(() -> publicationRepository.streamExportAfter(afterId == null ? 0 : afterId),
+                Stream::iterator,
+                format, PUBLICATION_COLUMNS, objectWriter, publication -> Arrays.asList(
+                        publication.publicationId(), publication.userId(), publication.username(), publication.content(),
+                        publication.imageUrl1(), publication.imageUrl2(), publication.imageUrl3(), publication.imageUrl4(),
+                        publication.creationTimestamp()),
+                outputStream);
+    }
+
+    private <R, T> void export(Supplier<Stream<R>> query, Function<Stream<R>, Iterator<T>> items,
+                               Format format, List<String> columns, ObjectWriter objectWriter,
+                               Function<T, List<?>> csvValues, OutputStream outputStream) {
+        bulkhead.acquire();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                // syncFlush: cada flush fecha um bloco gzip e vira um chunk HTTP, em vez de ficar no buffer do Deflater
+                try (Stream<R> rows = query.get(); var gzip = new GZIPOutputStream(outputStream, 64 * 1024, true)) {
+                    if (format == Format.CSV) {
+                        writeCsvLine(columns, gzip);
+                    }
+                    var iterator = items.apply(rows);
+                    int written = 0;
+                    while (iterator.hasNext()) {
+                        T item = iterator.next();
+                        if (format == Format.CSV) {
+                            writeCsvLine(csvValues.apply(item), gzip);
+                        } else {
+                            gzip.write(objectWriter.writeValueAsBytes(item));
+                            gzip.write('\n');
+                        }
+                        if (++written % FLUSH_EVERY == 0) {
+                            gzip.flush();
+                        }
+                    }
+                    gzip.finish();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void writeCsvLine(List<?> values, OutputStream outputStream) throws IOException {
+        var line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(csvField(values.get(i)));
+        }
+        line.append("\r\n");
+        outputStream.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // RFC 4180: aspas em volta de campos com separador, aspas ou quebra de linha
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        var text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    // Junta as linhas consecutivas (usuário, role) do cursor em um único usuário com a lista de roles
+    private static class UserGroupingIterator implements Iterator<ExportUserDto> {
+        private final Iterator<ExportUserRow> rows;
+        private ExportUserRow pending;
+
+        UserGroupingIterator(Iterator<ExportUserRow> rows) {
+            this.rows = rows;
+            this.pending = rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null;
+        }
+
+        @Override
+        public ExportUserDto next() {
+            if (pending == null) {
+                throw new NoSuchElementException();
+            }
+            var first = pending;
+            var roles = new ArrayList<String>();
+            while (pending != null && Objects.equals(pending.id(), first.id())) {
+                if (pending.role() != null) {
+                    roles.add(pending.role());
+                }
+                pending = rows.hasNext() ? rows.next() : null;
+            }
+            return new ExportUserDto(first.id(), first.email(), first.name(), first.cpf(), first.telephone(), first.username(),
+                    first.professionalName(), first.category(), first.aboutMe(), first.socialMedia(),
+                    first.localization(), first.profilePicture(), roles);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.proa.teiacultural.services;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+// Invalida o que é derivado do feed e dos perfis incrementando as versões usadas nos ETags. Os caches locais
+// são chaveados por essa versão: depois do commit nenhuma instância serve o corpo antigo com o ETag novo,
+// e as entradas de versões anteriores apenas expiram
+@Service
+public class FeedCacheService {
+    private final CacheManager cacheManager;
+    private final ContentVersionService contentVersionService;
+
+    public FeedCacheService(CacheManager cacheManager, ContentVersionService contentVersionService) {
+        this.cacheManager = cacheManager;
+        this.contentVersionService = contentVersionService;
+    }
+
+    private record VersionedKey(long version, Object key) {
+    }
+
+    public void evictFeedPages() {
+        contentVersionService.bump(ContentVersionService.FEED);
+    }
+
+    public void evictProfile(String username) {
+        if (username != null) {
+            contentVersionService.bump(ContentVersionService.userScope(username));
+        }
+    }
+
+    public void evictUserPublications(String username) {
+        if (username != null) {
+            contentVersionService.bump(ContentVersionService.userScope(username));
+        }
+    }
+
+    // O loader roda depois da leitura da versão, então o valor guardado é do estado dessa versão ou de um mais novo.
+    // Resultados nulos (não encontrado) não são guardados
+    @SuppressWarnings("unchecked")
+    public <T> T cached(String cacheName, ContentVersionService.Version version, Object key, Supplier<T> loader) {
+        var cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        var versionedKey = new VersionedKey(version.version(), key);
+        var hit = cache.get(versionedKey);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+        T value = loader.get();
+        if (value != null) {
+            cache.put(versionedKey, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,81 @@
+package com.proa.teiacultural.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.proa.teiacultural.config.Bulkhead;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedFilterDto;
+import com.proa.teiacultural.repository.PublicationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Listagens sem paginação em NDJSON: cada linha do cursor JDBC vira uma linha JSON escrita na hora,
+// então a memória por requisição não depende do tamanho do resultado
+@Service
+public class FeedStreamService {
+    private static final int FLUSH_EVERY = 100;
+
+    private final PublicationRepository publicationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter feedFilterWriter;
+    private final Bulkhead bulkhead;
+
+    public FeedStreamService(PublicationRepository publicationRepository, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry, @Value("${feed.stream.max-concurrent}") int maxConcurrent, @Value("${feed.stream.max-wait-ms}") long maxWaitMs) {
+        this.publicationRepository = publicationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.feedFilterWriter = objectMapper.writerFor(FeedFilterDto.class);
+        // Cada stream segura uma conexão do pool enquanto o cliente lê; o limite preserva o pool para a API
+        this.bulkhead = new Bulkhead("feed_stream", maxConcurrent, Duration.ofMillis(maxWaitMs));
+        this.bulkhead.bindTo(meterRegistry);
+    }
+
+    public StreamingResponseBody streamByUsername(String username) {
+        return stream(() -> publicationRepository.streamFeedFilterByUsername(username));
+    }
+
+    public StreamingResponseBody streamByCategory(String category) {
+        return stream(() -> publicationRepository.streamFeedFilterByCategory(category));
+    }
+
+    // Roda na thread assíncrona do MVC; o Stream precisa de uma transação aberta enquanto é consumido.
+    // O permit é pedido antes de qualquer byte escrito, então a recusa ainda vira um 503
+    private StreamingResponseBody stream(Supplier<Stream<FeedFilterDto>> query) {
+        return outputStream -> bulkhead.call(() -> readOnlyTransaction.execute(status -> {
+            try (Stream<FeedFilterDto> items = query.get()) {
+                write(items, outputStream);
+            }
+            return null;
+        }));
+    }
+
+    private void write(Stream<FeedFilterDto> items, OutputStream outputStream) {
+        try {
+            var iterator = items.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                outputStream.write(feedFilterWriter.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+                written++;
+                // O primeiro item sai imediatamente; depois, um flush a cada lote
+                if (written == 1 || written % FLUSH_EVERY == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.repository.FollowRepository;
+import com.proa.teiacultural.repository.TimelineEntryRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Grafo de seguidores (tb_follows) e o contador User.followerCount usado pelo TimelineService
+@Service
+public class FollowService {
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final TimelineService timelineService;
+
+    public FollowService(FollowRepository followRepository, UserRepository userRepository,
+                         TimelineEntryRepository timelineEntryRepository, TimelineService timelineService) {
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.timelineService = timelineService;
+    }
+
+    // Idempotente: seguir de novo não altera nada
+    @Transactional
+    public void follow(UUID followerId, String username) {
+        var followedId = userRepository.findIdByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (followedId.equals(followerId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Users cannot follow themselves");
+        }
+        // Verificar e depois inserir deixaria duas requisições simultâneas contarem o mesmo seguidor duas vezes
+        if (followRepository.insertIfAbsent(followerId, followedId, Instant.now()) == 0) {
+            return;
+        }
+        userRepository.addFollowers(followedId, 1);
+
+        timelineService.followed(followerId, followedId, userRepository.findFollowerCountById(followedId).orElse(0L));
+    }
+
+    @Transactional
+    public void unfollow(UUID followerId, String username) {
+        var followedId = userRepository.findIdByUsername(username).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (followRepository.deleteByFollowerIdAndFollowedId(followerId, followedId) == 0) {
+            return;
+        }
+        userRepository.addFollowers(followedId, -1);
+        timelineService.unfollowed(followerId, followedId);
+    }
+
+    // Chamado antes de remover o usuário: arestas, contadores de quem ele seguia e timelines
+    @Transactional
+    public void userRemoved(UUID userId) {
+        followRepository.decrementFollowedBy(userId);
+        followRepository.deleteAllByUserId(userId);
+        timelineEntryRepository.deleteAllByUserId(userId);
+    }
+}
@@ -0,0 +1,300 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.entities.ImageDerivative;
+import com.proa.teiacultural.repository.ImageDerivativeRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Gera versões redimensionadas das imagens das publicações, fora da thread da requisição.
+// A chave de cada derivada é a chave do original + "-w<largura>"; tb_image_derivatives registra
+// quais imagens já têm as derivadas e serve de fila, com retentativas e backoff exponencial
+@Service
+public class ImageDerivativeService {
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+    public static final List<Integer> WIDTHS = List.of(320, 640, 1080);
+
+    private final S3Client s3Client;
+    private final ExecutorService imageExecutor;
+    private final StoreFileService storeFileService;
+    private final ImageDerivativeRepository imageDerivativeRepository;
+    private final UserRepository userRepository;
+    private final FeedCacheService feedCacheService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${aws.bucket-name}")
+    private String bucketName;
+
+    @Value("${images.jpeg-quality}")
+    private float jpegQuality;
+
+    @Value("${images.max-source-pixels}")
+    private long maxSourcePixels;
+
+    @Value("${images.derivative-batch-size}")
+    private int batchSize;
+
+    @Value("${images.derivative-max-attempts}")
+    private int maxAttempts;
+
+    @Value("${images.derivative-initial-backoff-seconds}")
+    private long initialBackoffSeconds;
+
+    @Value("${images.derivative-max-backoff-seconds}")
+    private long maxBackoffSeconds;
+
+    @Value("${images.derivative-lease-seconds}")
+    private long leaseSeconds;
+
+    public ImageDerivativeService(S3Client s3Client, StoreFileService storeFileService,
+                                  ImageDerivativeRepository imageDerivativeRepository, UserRepository userRepository,
+                                  FeedCacheService feedCacheService, PlatformTransactionManager transactionManager,
+                                  @Value("${images.derivative-threads}") int derivativeThreads,
+                                  @Value("${images.derivative-queue-size}") int derivativeQueueSize) {
+        this.s3Client = s3Client;
+        // Redimensionar é CPU e memória: poucas threads de plataforma e fila limitada. Com a fila cheia a
+        // tarefa é recusada e o item continua pendente para o próximo ciclo. O pool não é um bean: um Executor
+        // no contexto faz o Boot desistir do applicationTaskExecutor usado pelo MVC assíncrono
+        this.imageExecutor = new ThreadPoolExecutor(derivativeThreads, derivativeThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(derivativeQueueSize),
+                Thread.ofPlatform().name("image-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.storeFileService = storeFileService;
+        this.imageDerivativeRepository = imageDerivativeRepository;
+        this.userRepository = userRepository;
+        this.feedCacheService = feedCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        imageExecutor.shutdown();
+    }
+
+    public static String derivativeOf(String urlOrKey, int width) {
+        return urlOrKey + "-w" + width;
+    }
+
+    // Grava na transação de quem chama; o worker gera as derivadas depois
+    @Transactional
+    public void enqueue(UUID authorId, Collection<String> imageUrls) {
+        var pending = new LinkedHashSet<String>();
+        for (String imageUrl : imageUrls) {
+            if (imageUrl != null && !imageUrl.isEmpty()) {
+                pending.add(imageUrl);
+            }
+        }
+        imageDerivativeRepository.findAllById(pending).forEach(existing -> pending.remove(existing.getImageUrl()));
+        if (pending.isEmpty()) {
+            return;
+        }
+        var now = now();
+        var derivatives = new ArrayList<ImageDerivative>();
+        for (String imageUrl : pending) {
+            var derivative = new ImageDerivative();
+            derivative.setImageUrl(imageUrl);
+            derivative.setAuthorId(authorId);
+            derivative.setNextAttemptAt(now);
+            derivatives.add(derivative);
+        }
+        imageDerivativeRepository.saveAll(derivatives);
+    }
+
+    // Publicações que nunca passaram pela fila (anteriores a ela ou gravadas por fora da API)
+    @Transactional
+    public int backfill() {
+        var now = now();
+        return imageDerivativeRepository.backfillImage1(now) + imageDerivativeRepository.backfillImage2(now)
+                + imageDerivativeRepository.backfillImage3(now) + imageDerivativeRepository.backfillImage4(now);
+    }
+
+    // Cada item é reservado por lease-seconds antes de ir para o executor; se a instância cair no meio,
+    // o item volta a vencer e outra instância o pega
+    @Scheduled(fixedDelayString = "${images.derivative-interval-ms}")
+    public void drain() {
+        var now = now();
+        var leaseUntil = now.plusSeconds(leaseSeconds);
+        for (ImageDerivative derivative : imageDerivativeRepository.findDue(now, PageRequest.ofSize(batchSize))) {
+            var imageUrl = derivative.getImageUrl();
+            var dueAt = derivative.getNextAttemptAt();
+            Integer claimed = transactionTemplate.execute(status -> imageDerivativeRepository.claim(imageUrl, dueAt, leaseUntil));
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            try {
+                imageExecutor.execute(() -> process(derivative));
+            } catch (RejectedExecutionException e) {
+                // Fila cheia: devolve o item e tenta no próximo ciclo
+                transactionTemplate.execute(status -> imageDerivativeRepository.claim(imageUrl, leaseUntil, dueAt));
+                return;
+            }
+        }
+    }
+
+    private void process(ImageDerivative derivative) {
+        var imageUrl = derivative.getImageUrl();
+        try {
+            generate(imageUrl);
+            // As páginas já em cache listam o original para essa imagem; a nova versão troca o ETag e o corpo
+            transactionTemplate.executeWithoutResult(status -> {
+                imageDerivativeRepository.markReady(imageUrl);
+                feedCacheService.evictFeedPages();
+                if (derivative.getAuthorId() != null) {
+                    userRepository.findUsernameById(derivative.getAuthorId()).ifPresent(feedCacheService::evictUserPublications);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            var failedAttempts = derivative.getAttempts() + 1;
+            // URL fora do bucket nunca vai ter derivadas; a API continua servindo o original
+            var giveUp = e instanceof IllegalArgumentException || failedAttempts >= maxAttempts;
+            var nextAttemptAt = giveUp ? null : now().plus(backoff(failedAttempts));
+            var message = e.getClass().getSimpleName() + " " + e.getMessage();
+            transactionTemplate.execute(status -> imageDerivativeRepository.markFailed(imageUrl, failedAttempts, nextAttemptAt,
+                    message.length() > 1024 ? message.substring(0, 1024) : message));
+            log.warn("Failed to generate image derivatives for {} (attempt {}): {}", imageUrl, failedAttempts, e.getMessage());
+        }
+    }
+
+    private void generate(String imageUrl) throws IOException {
+        var key = storeFileService.keyFromUrl(imageUrl);
+        var getRequest = GetObjectRequest.builder().bucket(bucketName).key(key).build();
+        try (var object = storeFileService.s3Call("get", () -> s3Client.getObject(getRequest))) {
+            var contentType = object.response().contentType();
+            // SVG é vetorial: as "derivadas" são cópias feitas pelo próprio S3
+            if ("image/svg+xml".equals(contentType)) {
+                for (int width : WIDTHS) {
+                    var copyRequest = CopyObjectRequest.builder()
+                            .sourceBucket(bucketName).sourceKey(key)
+                            .destinationBucket(bucketName).destinationKey(derivativeOf(key, width))
+                            .build();
+                    storeFileService.s3Call("copy", () -> s3Client.copyObject(copyRequest));
+                }
+                return;
+            }
+
+            var png = "image/png".equals(contentType);
+            var source = decode(object);
+            for (int width : WIDTHS) {
+                var bytes = encode(resize(source, Math.min(width, source.getWidth()), png), png);
+                var putRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(derivativeOf(key, width))
+                        .contentType(png ? "image/png" : "image/jpeg")
+                        .build();
+                storeFileService.s3Call("put_derivative", () -> s3Client.putObject(putRequest, RequestBody.fromBytes(bytes)));
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        var seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+    }
+
+    // O lease é comparado por igualdade no banco: sem frações que a coluna descartaria
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    // Lê as dimensões antes de decodificar para recusar imagens que estourariam o heap
+    private BufferedImage decode(InputStream inputStream) throws IOException {
+        try (var input = ImageIO.createImageInputStream(inputStream)) {
+            var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                var pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IOException("Image too large: " + pixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Reduz pela metade até chegar perto da largura final: interpolação bilinear em um passo só perde detalhe
+    private static BufferedImage resize(BufferedImage source, int width, boolean alpha) {
+        var height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        var current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            var next = new BufferedImage(currentWidth, currentHeight, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            var graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                if (!alpha) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, boolean png) throws IOException {
+        var output = new ByteArrayOutputStream();
+        if (png) {
+            ImageIO.write(image, "png", output);
+            return output.toByteArray();
+        }
+        var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (var imageOutput = ImageIO.createImageOutputStream(output)) {
+            var params = writer.getDefaultWriteParam();
+            params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            params.setCompressionQuality(jpegQuality);
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
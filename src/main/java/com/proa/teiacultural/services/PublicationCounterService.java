@@ -0,0 +1,343 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.controller.dto.FeedDto.CategoryPublicationCount;
+import com.proa.teiacultural.controller.dto.FeedDto.UserPublicationCount;
+import com.proa.teiacultural.entities.PublicationCounter;
+import com.proa.teiacultural.repository.PublicationCounterRepository;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Totais de publicações (global, por usuário e por categoria) usados no totalElements/totalPages das páginas.
+// As escritas somam deltas num LongAdder depois do commit; um worker descarrega os deltas em
+// tb_publication_counters e relê os totais (que incluem os deltas das outras instâncias).
+// O reconcile recalcula os totais com GROUP BY, o que corrige qualquer desvio. Cada delta leva a época
+// lida (com lock compartilhado) na transação que o gerou; o reconcile incrementa a época com lock exclusivo
+// antes de contar, então os deltas de épocas anteriores já estão na contagem e são descartados.
+// O lock exclusivo fica preso até o fim das contagens e bloqueia as escritas de publicações de todas as
+// instâncias nesse intervalo: por isso o reconcile só roda sozinho na primeira subida (tabela vazia) e,
+// depois disso, por chamada explícita de um admin (POST /admin/counters/reconcile), fora do horário de pico
+@Service
+public class PublicationCounterService {
+    private static final String GLOBAL = "global";
+    private static final String EPOCH = "epoch";
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final PublicationCounterRepository publicationCounterRepository;
+    private final PublicationRepository publicationRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    // flush, refresh e reconcile mexem no valor persistido; nunca rodam ao mesmo tempo
+    private final ReentrantLock persistLock = new ReentrantLock();
+    // Deltas entram com o lock de leitura; trocar de época e remover contadores ociosos exige o de escrita
+    private final ReadWriteLock epochLock = new ReentrantReadWriteLock();
+    private long epoch;
+
+    @Value("${counters.idle-eviction-ms}")
+    private long idleEvictionMs;
+
+    public PublicationCounterService(PublicationCounterRepository publicationCounterRepository, PublicationRepository publicationRepository,
+                                     UserRepository userRepository, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.publicationCounterRepository = publicationCounterRepository;
+        this.publicationRepository = publicationRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private static class Counter {
+        private final AtomicLong persisted;
+        private final LongAdder pending = new LongAdder();
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        Counter(long persisted) {
+            this.persisted = new AtomicLong(persisted);
+        }
+
+        long value() {
+            lastAccess = System.currentTimeMillis();
+            return Math.max(0, persisted.get() + pending.sum());
+        }
+    }
+
+    private static String userKey(UUID userId) {
+        return "user:" + userId;
+    }
+
+    private static String categoryKey(String category) {
+        return "category:" + category;
+    }
+
+    public long total() {
+        return counter(GLOBAL).value();
+    }
+
+    public long countByUser(UUID userId) {
+        return counter(userKey(userId)).value();
+    }
+
+    public long countByCategory(String category) {
+        return counter(categoryKey(category)).value();
+    }
+
+    // Publicações criadas (delta > 0) ou removidas (delta < 0) por um usuário
+    @Transactional
+    public void publicationsChanged(UUID userId, long delta) {
+        var keys = new ArrayList<String>();
+        keys.add(GLOBAL);
+        keys.add(userKey(userId));
+        for (String category : userRepository.findCategoryNamesById(userId)) {
+            keys.add(categoryKey(category));
+        }
+        afterCommit(() -> keys.forEach(key -> counter(key).pending.add(delta)));
+    }
+
+    // As publicações do usuário passam a contar nas categorias novas e deixam de contar nas antigas
+    @Transactional
+    public void categoriesChanged(UUID userId, Collection<String> removed, Collection<String> added) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            long count = countByUser(userId);
+            if (count == 0) {
+                return;
+            }
+            removed.forEach(category -> counter(categoryKey(category)).pending.add(-count));
+            added.forEach(category -> counter(categoryKey(category)).pending.add(count));
+        });
+    }
+
+    // Deve ser chamado antes de remover o usuário, enquanto as categorias dele ainda existem
+    @Transactional
+    public void userRemoved(UUID userId) {
+        var categories = userRepository.findCategoryNamesById(userId);
+        afterCommit(() -> {
+            long count = countByUser(userId);
+            counter(GLOBAL).pending.add(-count);
+            counter(userKey(userId)).pending.add(-count);
+            categories.forEach(category -> counter(categoryKey(category)).pending.add(-count));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms}")
+    public void flush() {
+        persistLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Segura o lock compartilhado da época até o commit: os deltas não caem no meio de um reconcile
+                var current = lockEpoch();
+                var deltas = new HashMap<String, Long>();
+                epochLock.writeLock().lock();
+                try {
+                    if (current != epoch) {
+                        // Outra instância reconciliou: os deltas acumulados aqui já estão na contagem dela
+                        advanceEpoch(current);
+                        return;
+                    }
+                    counters.forEach((key, counter) -> {
+                        long delta = counter.pending.sumThenReset();
+                        if (delta != 0) {
+                            counter.persisted.addAndGet(delta);
+                            deltas.put(key, delta);
+                        }
+                    });
+                } finally {
+                    epochLock.writeLock().unlock();
+                }
+                if (deltas.isEmpty()) {
+                    return;
+                }
+                // Se a transação falhar, os deltas voltam para a próxima tentativa
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        if (completionStatus != STATUS_COMMITTED) {
+                            deltas.forEach((key, delta) -> {
+                                var counter = counters.computeIfAbsent(key, k -> new Counter(0));
+                                counter.persisted.addAndGet(-delta);
+                                counter.pending.add(delta);
+                            });
+                        }
+                    }
+                });
+                deltas.forEach(publicationCounterRepository::add);
+            });
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    // Traz para a memória os deltas que outras instâncias já descarregaram. Lê do primário (transação de escrita):
+    // um valor atrasado da réplica desfaria deltas já descarregados
+    @Scheduled(fixedDelayString = "${counters.refresh-interval-ms}", initialDelayString = "${counters.refresh-interval-ms}")
+    public void refresh() {
+        persistLock.lock();
+        try {
+            evictIdle();
+            var keys = new ArrayList<>(counters.keySet());
+            transactionTemplate.executeWithoutResult(status -> {
+                var current = publicationCounterRepository.findCountValue(EPOCH).orElse(0L);
+                if (current != epoch) {
+                    epochLock.writeLock().lock();
+                    try {
+                        advanceEpoch(current);
+                    } finally {
+                        epochLock.writeLock().unlock();
+                    }
+                }
+                for (int from = 0; from < keys.size(); from += REFRESH_BATCH_SIZE) {
+                    var batch = keys.subList(from, Math.min(from + REFRESH_BATCH_SIZE, keys.size()));
+                    for (PublicationCounter row : publicationCounterRepository.findAllById(batch)) {
+                        var counter = counters.get(row.getCounterKey());
+                        if (counter != null) {
+                            counter.persisted.set(row.getCountValue());
+                        }
+                    }
+                }
+            });
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    // Na subida: sem época gravada (primeira execução) faz a contagem completa; senão só adota a época atual
+    public void initialize() {
+        var current = publicationCounterRepository.findCountValue(EPOCH);
+        if (current.isEmpty()) {
+            reconcile();
+            return;
+        }
+        epochLock.writeLock().lock();
+        try {
+            advanceEpoch(current.get());
+        } finally {
+            epochLock.writeLock().unlock();
+        }
+    }
+
+    public void reconcile() {
+        persistLock.lock();
+        try {
+            // Época, contagens e regravação na mesma transação, no primário. O lock exclusivo na linha da época
+            // espera as transações que já leram a época anterior; as contagens vêm depois dele e incluem todas
+            var exact = transactionTemplate.execute(status -> {
+                publicationCounterRepository.add(EPOCH, 1);
+                var newEpoch = publicationCounterRepository.findCountValue(EPOCH).orElseThrow();
+                var counts = new HashMap<String, Long>();
+                counts.put(GLOBAL, publicationRepository.count());
+                for (UserPublicationCount count : publicationRepository.countGroupedByUser()) {
+                    counts.put(userKey(count.userId()), count.count());
+                }
+                for (CategoryPublicationCount count : publicationRepository.countGroupedByCategory()) {
+                    counts.put(categoryKey(count.category()), count.count());
+                }
+
+                var rows = counts.entrySet().stream().map(entry -> new Object[]{entry.getKey(), entry.getValue()}).toList();
+                publicationCounterRepository.deleteAllExcept(EPOCH);
+                jdbcTemplate.batchUpdate("INSERT INTO tb_publication_counters (counter_key, count_value) VALUES (?, ?)", rows);
+                counts.put(EPOCH, newEpoch);
+                return counts;
+            });
+
+            epochLock.writeLock().lock();
+            try {
+                advanceEpoch(exact.remove(EPOCH));
+                counters.forEach((key, counter) -> counter.persisted.set(exact.getOrDefault(key, 0L)));
+                exact.forEach((key, count) -> counters.putIfAbsent(key, new Counter(count)));
+            } finally {
+                epochLock.writeLock().unlock();
+            }
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    // Chamado com o lock de escrita: os deltas pendentes são da época anterior
+    private void advanceEpoch(long newEpoch) {
+        if (newEpoch <= epoch) {
+            return;
+        }
+        epoch = newEpoch;
+        counters.values().forEach(counter -> counter.pending.reset());
+    }
+
+    // Contadores de usuários e categorias que ninguém consulta há idle-eviction-ms saem da memória;
+    // com delta pendente ficam até o próximo flush
+    private void evictIdle() {
+        var cutoff = System.currentTimeMillis() - idleEvictionMs;
+        epochLock.writeLock().lock();
+        try {
+            counters.entrySet().removeIf(entry -> !entry.getKey().equals(GLOBAL)
+                    && entry.getValue().lastAccess < cutoff
+                    && entry.getValue().pending.sum() == 0);
+        } finally {
+            epochLock.writeLock().unlock();
+        }
+    }
+
+    private long lockEpoch() {
+        return publicationCounterRepository.findForShare(EPOCH).map(PublicationCounter::getCountValue).orElse(0L);
+    }
+
+    private Counter counter(String key) {
+        var counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        long persisted = publicationCounterRepository.findById(key).map(PublicationCounter::getCountValue).orElse(0L);
+        return counters.computeIfAbsent(key, k -> new Counter(persisted));
+    }
+
+    // Transação desfeita não altera os contadores. A época é lida na transação da escrita; se um reconcile
+    // terminar antes deste afterCommit, o delta já está na contagem dele e é descartado
+    private void afterCommit(Runnable update) {
+        var deltaEpoch = lockEpoch();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                epochLock.readLock().lock();
+                try {
+                    if (deltaEpoch <= epoch) {
+                        if (deltaEpoch == epoch) {
+                            update.run();
+                        }
+                        return;
+                    }
+                } finally {
+                    epochLock.readLock().unlock();
+                }
+                // Outra instância reconciliou e esta ainda não sabia: os pendentes daqui são da época anterior
+                epochLock.writeLock().lock();
+                try {
+                    advanceEpoch(deltaEpoch);
+                    update.run();
+                } finally {
+                    epochLock.writeLock().unlock();
+                }
+            }
+        });
+    }
+}
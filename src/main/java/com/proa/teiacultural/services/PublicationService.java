@@ -0,0 +1,123 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+
+// Escrita de publicações: tudo que vai para o banco (publicação, contadores, timelines, derivadas e versões dos ETags)
+// entra numa transação só. O índice de busca muda depois do commit e, se a transação não confirmar, as imagens
+// que a própria requisição subiu (uploadedUrls) são apagadas do S3
+@Service
+public class PublicationService {
+    private final PublicationRepository publicationRepository;
+    private final UserRepository userRepository;
+    private final StoreFileService storeFileService;
+    private final PublicationCounterService publicationCounterService;
+    private final TimelineService timelineService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final FeedCacheService feedCacheService;
+    private final SearchIndexService searchIndexService;
+
+    public PublicationService(PublicationRepository publicationRepository, UserRepository userRepository, StoreFileService storeFileService,
+                              PublicationCounterService publicationCounterService, TimelineService timelineService,
+                              ImageDerivativeService imageDerivativeService, FeedCacheService feedCacheService,
+                              SearchIndexService searchIndexService) {
+        this.publicationRepository = publicationRepository;
+        this.userRepository = userRepository;
+        this.storeFileService = storeFileService;
+        this.publicationCounterService = publicationCounterService;
+        this.timelineService = timelineService;
+        this.imageDerivativeService = imageDerivativeService;
+        this.feedCacheService = feedCacheService;
+        this.searchIndexService = searchIndexService;
+    }
+
+    @Transactional
+    public void create(UUID userId, String username, String content, List<String> imageUrls, List<String> uploadedUrls) {
+        deleteOnRollback(uploadedUrls);
+        var publication = new Publication();
+        publication.setUser(userRepository.getReferenceById(userId));
+        publication.setContent(content);
+        applyImageUrls(publication, imageUrls);
+
+        publicationRepository.save(publication);
+        publicationCounterService.publicationsChanged(userId, 1);
+        timelineService.publicationCreated(publication);
+        saved(publication, username, imageUrls);
+    }
+
+    // A publicação é lida na própria transação de escrita: com réplica habilitada, uma leitura separada
+    // iria para a réplica e poderia estar desatualizada
+    @Transactional
+    public void update(long publicationId, UUID userId, String username, String content, List<String> imageUrls, List<String> uploadedUrls) {
+        deleteOnRollback(uploadedUrls);
+        var publication = findOwned(publicationId, userId);
+        if (content != null) {
+            publication.setContent(content);
+        }
+        applyImageUrls(publication, imageUrls);
+
+        publicationRepository.save(publication);
+        saved(publication, username, imageUrls);
+    }
+
+    // Verificação antecipada, antes de subir arquivos para uma publicação de outro usuário
+    @Transactional(readOnly = true)
+    public void checkOwner(long publicationId, UUID userId) {
+        findOwned(publicationId, userId);
+    }
+
+    private Publication findOwned(long publicationId, UUID userId) {
+        var publication = publicationRepository.findById(publicationId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (!publication.getUser().getId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User does not own this publication");
+        }
+        return publication;
+    }
+
+    private void deleteOnRollback(List<String> uploadedUrls) {
+        if (uploadedUrls.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    storeFileService.deleteFiles(uploadedUrls);
+                }
+            }
+        });
+    }
+
+    // A posição na lista corresponde a imageUrl1..imageUrl4; posições nulas mantêm a imagem atual
+    private static void applyImageUrls(Publication publication, List<String> imageUrls) {
+        if (imageUrls.get(0) != null) {
+            publication.setImageUrl1(imageUrls.get(0));
+        }
+        if (imageUrls.get(1) != null) {
+            publication.setImageUrl2(imageUrls.get(1));
+        }
+        if (imageUrls.get(2) != null) {
+            publication.setImageUrl3(imageUrls.get(2));
+        }
+        if (imageUrls.get(3) != null) {
+            publication.setImageUrl4(imageUrls.get(3));
+        }
+    }
+
+    private void saved(Publication publication, String username, List<String> imageUrls) {
+        imageDerivativeService.enqueue(publication.getUser().getId(), imageUrls);
+        feedCacheService.evictFeedPages();
+        feedCacheService.evictUserPublications(username);
+        searchIndexService.indexPublication(publication);
+    }
+}
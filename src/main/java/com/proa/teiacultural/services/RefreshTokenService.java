@@ -0,0 +1,110 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.entities.RefreshToken;
+import com.proa.teiacultural.entities.User;
+import com.proa.teiacultural.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+// Refresh tokens opacos e rotativos: cada uso revoga o token atual e emite outro.
+// Reapresentar um token já revogado indica vazamento, então todos os tokens do usuário são revogados
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-token.ttl-seconds}")
+    private long ttlSeconds;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    @Transactional
+    public String issue(User user) {
+        var bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        var rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        var refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(Instant.now().plusSeconds(ttlSeconds));
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+
+    // noRollbackFor: a revogação em massa por reuso precisa ser gravada mesmo com a requisição recusada
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        var now = Instant.now();
+        var current = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        if (current.getRevokedAt() != null) {
+            refreshTokenRepository.revokeAllByUserId(current.getUser().getId(), now);
+            throw new BadCredentialsException("Refresh token reused");
+        }
+        if (current.isExpired(now)) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+
+        current.setRevokedAt(now);
+        var user = current.getUser();
+        return new Rotation(user, issue(user));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken)).ifPresent(refreshToken -> {
+            if (refreshToken.getRevokedAt() == null) {
+                refreshToken.setRevokedAt(Instant.now());
+            }
+        });
+    }
+
+    @Transactional
+    public void deleteAllByUserId(UUID userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval-ms}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
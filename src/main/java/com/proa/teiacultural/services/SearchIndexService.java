@@ -0,0 +1,308 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.controller.dto.SearchDto.SearchCreatorSource;
+import com.proa.teiacultural.controller.dto.SearchDto.SearchDto;
+import com.proa.teiacultural.controller.dto.SearchDto.SearchHitDto;
+import com.proa.teiacultural.controller.dto.SearchDto.SearchPublicationSource;
+import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.entities.User;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// Índice invertido em memória (BM25) sobre o conteúdo das publicações e os campos públicos dos criadores.
+// É atualizado pelos controllers depois de cada commit e reconstruído periodicamente a partir do banco,
+// o que também traz as alterações feitas por outras instâncias
+@Service
+public class SearchIndexService {
+    public static final String PUBLICATION = "publication";
+    public static final String CREATOR = "creator";
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final PublicationRepository publicationRepository;
+    private final UserRepository userRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Index index = new Index();
+    // Alterações recebidas durante uma reconstrução; são reaplicadas no índice novo antes da troca
+    private List<Consumer<Index>> pendingChanges;
+
+    public SearchIndexService(PublicationRepository publicationRepository, UserRepository userRepository) {
+        this.publicationRepository = publicationRepository;
+        this.userRepository = userRepository;
+    }
+
+    public SearchDto search(String query, String type, int page, int pageSize) {
+        var terms = new LinkedHashSet<>(tokenize(query));
+        var hits = new ArrayList<SearchHitDto>();
+        long totalElements;
+
+        lock.readLock().lock();
+        try {
+            var scores = new HashMap<String, Double>();
+            var documentCount = index.documents.size();
+            var averageLength = documentCount == 0 ? 1.0 : Math.max(1.0, (double) index.totalLength / documentCount);
+            for (String term : terms) {
+                var postings = index.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                var idf = Math.log(1 + (documentCount - postings.size() + 0.5) / (postings.size() + 0.5));
+                for (Map.Entry<String, Integer> posting : postings.entrySet()) {
+                    var document = index.documents.get(posting.getKey());
+                    if (type != null && !type.equals(document.type())) {
+                        continue;
+                    }
+                    int frequency = posting.getValue();
+                    var norm = K1 * (1 - B + B * document.length() / averageLength);
+                    scores.merge(posting.getKey(), idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                }
+            }
+
+            totalElements = scores.size();
+            scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .skip((long) page * pageSize)
+                    .limit(pageSize)
+                    .forEach(entry -> hits.add(toHit(index.documents.get(entry.getKey()), entry.getValue())));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        var totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+        return new SearchDto(hits, page, pageSize, totalPages, totalElements);
+    }
+
+    private SearchHitDto toHit(Document document, double score) {
+        if (document.creator() != null) {
+            var creator = document.creator();
+            return new SearchHitDto(CREATOR, score, null, creator.id(), creator.username(), creator.professionalName(),
+                    creator.profilePicture(), creator.category(), null, null, null);
+        }
+        var publication = document.publication();
+        var author = index.documents.get(creatorKey(publication.userId()));
+        var creator = author == null ? null : author.creator();
+        return new SearchHitDto(PUBLICATION, score, publication.publicationId(), publication.userId(),
+                creator == null ? null : creator.username(),
+                creator == null ? null : creator.professionalName(),
+                creator == null ? null : creator.profilePicture(),
+                creator == null ? null : creator.category(),
+                publication.content(), publication.imageUrl1(), publication.creationTimestamp());
+    }
+
+    public void indexPublication(Publication publication) {
+        var source = new SearchPublicationSource(publication.getPublicationId(), publication.getUser().getId(),
+                publication.getContent(), publication.getImageUrl1(), publication.getCreationTimestamp());
+        apply(index -> index.put(publicationDocument(source)));
+    }
+
+    public void removePublication(long publicationId) {
+        apply(index -> index.remove(publicationKey(publicationId)));
+    }
+
+    // Só criadores com username (premium) aparecem na busca
+    public void indexCreator(User user) {
+        if (user.getUsername() == null) {
+            var userId = user.getId();
+            apply(index -> index.remove(creatorKey(userId)));
+            return;
+        }
+        var source = new SearchCreatorSource(user.getId(), user.getUsername(), user.getProfessionalName(),
+                user.getProfilePicture(), user.getCategory(), user.getAboutMe(), user.getLocalization());
+        apply(index -> index.put(creatorDocument(source)));
+    }
+
+    public void removeUser(UUID userId) {
+        apply(index -> index.removeUser(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.rebuild-interval-ms}", initialDelayString = "${search.index.rebuild-interval-ms}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            withWriteLock(() -> pendingChanges = new ArrayList<>());
+            var rebuilt = new Index();
+            try {
+                loadCreators(rebuilt);
+                loadPublications(rebuilt);
+            } catch (RuntimeException e) {
+                withWriteLock(() -> pendingChanges = null);
+                throw e;
+            }
+            withWriteLock(() -> {
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                pendingChanges = null;
+                index = rebuilt;
+            });
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void loadCreators(Index target) {
+        var lastUsername = "";
+        List<SearchCreatorSource> chunk;
+        do {
+            chunk = userRepository.findSearchSourcesAfter(lastUsername, PageRequest.ofSize(REBUILD_CHUNK_SIZE));
+            for (SearchCreatorSource source : chunk) {
+                target.put(creatorDocument(source));
+                lastUsername = source.username();
+            }
+        } while (chunk.size() == REBUILD_CHUNK_SIZE);
+    }
+
+    private void loadPublications(Index target) {
+        long lastId = 0;
+        List<SearchPublicationSource> chunk;
+        do {
+            chunk = publicationRepository.findSearchSourcesAfter(lastId, PageRequest.ofSize(REBUILD_CHUNK_SIZE));
+            for (SearchPublicationSource source : chunk) {
+                target.put(publicationDocument(source));
+                lastId = source.publicationId();
+            }
+        } while (chunk.size() == REBUILD_CHUNK_SIZE);
+    }
+
+    // A alteração só entra no índice depois do commit, para nunca expor dados de uma transação desfeita
+    private void apply(Consumer<Index> change) {
+        Runnable task = () -> withWriteLock(() -> {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // "Dança, Música!" -> ["danca", "musica"]
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        var folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARATORS.splitAsStream(folded).filter(token -> token.length() > 1).toList();
+    }
+
+    private static Document publicationDocument(SearchPublicationSource source) {
+        return Document.of(publicationKey(source.publicationId()), PUBLICATION, tokenize(source.content()), source, null);
+    }
+
+    private static Document creatorDocument(SearchCreatorSource source) {
+        var tokens = new ArrayList<String>();
+        for (String field : new String[]{source.username(), source.professionalName(), source.category(), source.aboutMe(), source.localization()}) {
+            tokens.addAll(tokenize(field));
+        }
+        return Document.of(creatorKey(source.id()), CREATOR, tokens, null, source);
+    }
+
+    private static String publicationKey(long publicationId) {
+        return PUBLICATION + ":" + publicationId;
+    }
+
+    private static String creatorKey(UUID userId) {
+        return CREATOR + ":" + userId;
+    }
+
+    private record Document(String key, String type, Map<String, Integer> termFrequencies, int length,
+                            SearchPublicationSource publication, SearchCreatorSource creator) {
+        static Document of(String key, String type, List<String> tokens, SearchPublicationSource publication, SearchCreatorSource creator) {
+            var termFrequencies = new HashMap<String, Integer>();
+            for (String token : tokens) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+            return new Document(key, type, termFrequencies, tokens.size(), publication, creator);
+        }
+    }
+
+    private static final class Index {
+        private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+        private final Map<String, Document> documents = new HashMap<>();
+        private final Map<UUID, Set<String>> publicationsByUser = new HashMap<>();
+        private long totalLength;
+
+        void put(Document document) {
+            remove(document.key());
+            documents.put(document.key(), document);
+            totalLength += document.length();
+            document.termFrequencies().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.key(), frequency));
+            if (document.publication() != null) {
+                publicationsByUser.computeIfAbsent(document.publication().userId(), id -> new HashSet<>()).add(document.key());
+            }
+        }
+
+        void remove(String key) {
+            var document = documents.remove(key);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length();
+            for (String term : document.termFrequencies().keySet()) {
+                var termPostings = postings.get(term);
+                termPostings.remove(key);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            if (document.publication() != null) {
+                var userPublications = publicationsByUser.get(document.publication().userId());
+                if (userPublications != null) {
+                    userPublications.remove(key);
+                    if (userPublications.isEmpty()) {
+                        publicationsByUser.remove(document.publication().userId());
+                    }
+                }
+            }
+        }
+
+        void removeUser(UUID userId) {
+            remove(creatorKey(userId));
+            var userPublications = publicationsByUser.get(userId);
+            if (userPublications != null) {
+                new ArrayList<>(userPublications).forEach(this::remove);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.entities.StorageCleanupTask;
+import com.proa.teiacultural.repository.ImageDerivativeRepository;
+import com.proa.teiacultural.repository.StorageCleanupTaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Outbox de limpeza do S3: as remoções são gravadas na mesma transação que apaga a entidade
+// e executadas depois, em lotes, por um worker com retentativas e backoff exponencial
+@Service
+public class StorageCleanupService {
+    private final StorageCleanupTaskRepository storageCleanupTaskRepository;
+    private final StoreFileService storeFileService;
+    private final ImageDerivativeRepository imageDerivativeRepository;
+
+    @Value("${storage.cleanup.batch-size}")
+    private int batchSize;
+
+    @Value("${storage.cleanup.initial-backoff-seconds}")
+    private long initialBackoffSeconds;
+
+    @Value("${storage.cleanup.max-backoff-seconds}")
+    private long maxBackoffSeconds;
+
+    public StorageCleanupService(StorageCleanupTaskRepository storageCleanupTaskRepository, StoreFileService storeFileService,
+                                 ImageDerivativeRepository imageDerivativeRepository) {
+        this.storageCleanupTaskRepository = storageCleanupTaskRepository;
+        this.storeFileService = storeFileService;
+        this.imageDerivativeRepository = imageDerivativeRepository;
+    }
+
+    @Transactional
+    public void enqueue(Collection<String> fileUrls) {
+        var now = Instant.now();
+        var tasks = new ArrayList<StorageCleanupTask>();
+        for (String fileUrl : fileUrls) {
+            if (fileUrl == null || fileUrl.isEmpty()) {
+                continue;
+            }
+            var task = new StorageCleanupTask();
+            task.setFileUrl(fileUrl);
+            task.setNextAttemptAt(now);
+            tasks.add(task);
+        }
+        storageCleanupTaskRepository.saveAll(tasks);
+        // As derivadas vão embora junto com o original
+        imageDerivativeRepository.deleteAllByIdInBatch(tasks.stream().map(StorageCleanupTask::getFileUrl).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${storage.cleanup.interval-ms}")
+    @Transactional
+    public void drain() {
+        var now = Instant.now();
+        List<StorageCleanupTask> tasks = storageCleanupTaskRepository.findDue(now, PageRequest.ofSize(batchSize));
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        Map<String, StoreFileService.DeleteFailure> failures = new HashMap<>();
+        for (StoreFileService.DeleteFailure failure : storeFileService.deleteFiles(tasks.stream().map(StorageCleanupTask::getFileUrl).toList())) {
+            failures.put(failure.key(), failure);
+        }
+
+        var done = new ArrayList<StorageCleanupTask>();
+        for (StorageCleanupTask task : tasks) {
+            var failure = failureFor(task.getFileUrl(), failures);
+            // URLs fora do bucket nunca vão ser removidas; não adianta tentar de novo
+            if (failure == null || failure.code().equals("InvalidUrl")) {
+                done.add(task);
+            } else {
+                task.setAttempts(task.getAttempts() + 1);
+                task.setLastError(truncate(failure.code() + " " + failure.message()));
+                task.setNextAttemptAt(now.plus(backoff(task.getAttempts())));
+            }
+        }
+        storageCleanupTaskRepository.deleteAllInBatch(done);
+    }
+
+    // deleteFiles também remove as derivadas (chave + "-w<largura>"): a falha em qualquer uma delas mantém a tarefa
+    private StoreFileService.DeleteFailure failureFor(String fileUrl, Map<String, StoreFileService.DeleteFailure> failures) {
+        var failure = failures.get(fileUrl);
+        if (failure != null) {
+            return failure;
+        }
+        var key = storeFileService.keyFromUrl(fileUrl);
+        failure = failures.get(key);
+        if (failure != null) {
+            return failure;
+        }
+        for (int width : ImageDerivativeService.WIDTHS) {
+            failure = failures.get(ImageDerivativeService.derivativeOf(key, width));
+            if (failure != null) {
+                return failure;
+            }
+        }
+        return null;
+    }
+
+    private Duration backoff(int attempts) {
+        var seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+    }
+
+    private String truncate(String message) {
+        return message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
+}
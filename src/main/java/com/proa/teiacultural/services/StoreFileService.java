@@ -1,81 +1,359 @@
 package com.proa.teiacultural.services;
 
+import com.proa.teiacultural.config.Bulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 @Service
 public class StoreFileService {
+    private static final Logger log = LoggerFactory.getLogger(StoreFileService.class);
+    private static final int MAX_DELETE_BATCH = 1000;
+
+    public record DeleteFailure(String key, String code, String message) {
+    }
+
     @Autowired
     private S3Client s3Client;
 
+    @Autowired
+    private S3Presigner s3Presigner;
+
+    @Autowired
+    @Qualifier("s3Bulkhead")
+    private Bulkhead s3Bulkhead;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${aws.bucket-name}")
     private String bucketName;
 
     @Value("${aws.endpoint}")
     private String endpoint;
 
+    @Value("${aws.multipart-threshold}")
+    private long multipartThreshold;
+
+    @Value("${aws.multipart-part-size}")
+    private int multipartPartSize;
+
+    @Value("${aws.upload-threads}")
+    private int uploadThreads;
+
+    private ExecutorService storageExecutor;
+
+    // Pool limitado de virtual threads para uploads paralelos ao S3. Fica aqui e não como bean: um Executor
+    // no contexto faz o Boot desistir do applicationTaskExecutor, que atende as requisições assíncronas do MVC
+    @PostConstruct
+    void startStorageExecutor() {
+        storageExecutor = Executors.newFixedThreadPool(uploadThreads, Thread.ofVirtual().name("storage-", 0).factory());
+    }
+
+    @PreDestroy
+    void stopStorageExecutor() {
+        storageExecutor.shutdown();
+    }
+
+    // Sobe os arquivos em paralelo (posições nulas são ignoradas). Tudo ou nada: se um upload falhar,
+    // os que já terminaram são removidos e a falha é propagada
+    public List<String> uploadFiles(List<MultipartFile> files, String entityFile) {
+        List<Future<String>> uploads = new ArrayList<>();
+        for (MultipartFile file : files) {
+            uploads.add(file == null ? null : storageExecutor.submit(() -> uploadFile(file, entityFile, UUID.randomUUID().toString())));
+        }
+
+        List<String> urls = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Future<String> upload : uploads) {
+            String url = null;
+            if (upload != null) {
+                try {
+                    url = upload.get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException("Failed to upload file", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = new IllegalStateException("Interrupted while uploading files", e);
+                }
+            }
+            urls.add(url);
+        }
+
+        if (failure != null) {
+            deleteFiles(urls);
+            throw failure;
+        }
+        return urls;
+    }
+
     public String uploadFile(MultipartFile file, String entityFile, String fileUri) {
         String fileName = entityFile + fileUri;
-        File fileObj = convertMultiPartFileToFile(file);
 
+        if (file.getSize() > multipartThreshold) {
+            uploadMultipart(file, fileName);
+        } else {
+            PutObjectRequest objectRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .contentType(file.getContentType())
+                    .contentLength(file.getSize())
+                    .build();
+            // O SDK reabre o stream a cada tentativa, então nada é copiado para o heap ou para o disco
+            s3Call("put", () -> s3Client.putObject(objectRequest, RequestBody.fromContentProvider(() -> openStream(file), file.getSize(), file.getContentType())));
+        }
+
+        return fileUrl(fileName);
+    }
+
+    public String fileUrl(String key) {
+        return endpoint + "/" + bucketName + "/" + key;
+    }
+
+    // URL para o cliente enviar o arquivo direto ao S3; a assinatura fixa Content-Type e Content-Length
+    public String presignUpload(String key, String contentType, long contentLength, Duration expiresIn) {
         PutObjectRequest objectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(expiresIn)
+                .putObjectRequest(objectRequest)
+                .build();
+        return s3Presigner.presignPutObject(presignRequest).url().toString();
+    }
+
+    // Metadados de um objeto enviado pelo cliente, ou null se ele ainda não existir
+    public HeadObjectResponse headFile(String key) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+        try {
+            return s3Call("head", () -> s3Client.headObject(headObjectRequest));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    // Arquivos grandes sobem em partes de tamanho fixo: o heap usado por upload fica limitado a uma parte
+    private void uploadMultipart(MultipartFile file, String fileName) {
+        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
                 .bucket(bucketName)
                 .key(fileName)
+                .contentType(file.getContentType())
                 .build();
-        s3Client.putObject(objectRequest, fileObj.toPath());
+        String uploadId = s3Call("create_multipart_upload", () -> s3Client.createMultipartUpload(createRequest)).uploadId();
+
+        try (InputStream inputStream = file.getInputStream()) {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[multipartPartSize];
+            int partNumber = 1;
+            int read;
+            while ((read = inputStream.readNBytes(buffer, 0, buffer.length)) > 0) {
+                UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) read)
+                        .build();
+                RequestBody partBody = RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read);
+                String eTag = s3Call("upload_part", () -> s3Client.uploadPart(uploadPartRequest, partBody)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                partNumber++;
+            }
 
-        return endpoint + "/" + bucketName + "/" + fileName;
+            CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build();
+            s3Call("complete_multipart_upload", () -> s3Client.completeMultipartUpload(completeRequest));
+        } catch (IOException | RuntimeException e) {
+            AbortMultipartUploadRequest abortRequest = AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .uploadId(uploadId)
+                    .build();
+            s3Call("abort_multipart_upload", () -> s3Client.abortMultipartUpload(abortRequest));
+            if (e instanceof IOException ioException) {
+                throw new UncheckedIOException("Failed to upload file: " + fileName, ioException);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    private InputStream openStream(MultipartFile file) {
+        try {
+            return file.getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read uploaded file", e);
+        }
     }
 
     public void deleteFile(String fileUrl) {
         try {
-            String fileName = extractFileNameFromUrl(fileUrl);
+            String fileName = keyFromUrl(fileUrl);
             DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
                     .bucket(bucketName)
                     .key(fileName)
                     .build();
-            s3Client.deleteObject(deleteObjectRequest);
+            s3Call("delete", () -> s3Client.deleteObject(deleteObjectRequest));
         } catch (IllegalArgumentException e) {
-            // Log the error and continue
-            System.err.println("Failed to delete file: " + e.getMessage());
+            log.warn("Failed to delete file: {}", e.getMessage());
         }
     }
 
-    public void deleteFolder(String folderName) {
+    // Remove todos os objetos da pasta, um DeleteObjects por página da listagem (até 1000 chaves)
+    public List<DeleteFailure> deleteFolder(String folderName) {
         ListObjectsV2Request listObjectsV2Request = ListObjectsV2Request.builder()
                 .bucket(bucketName)
                 .prefix(folderName + "/")
                 .build();
 
+        List<DeleteFailure> failures = new ArrayList<>();
         ListObjectsV2Response listObjectsV2Response;
         do {
-            listObjectsV2Response = s3Client.listObjectsV2(listObjectsV2Request);
-            List<S3Object> objects = listObjectsV2Response.contents();
-
-            for (S3Object object : objects) {
-                DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(object.key())
-                        .build();
-                s3Client.deleteObject(deleteObjectRequest);
-            }
+            ListObjectsV2Request pageRequest = listObjectsV2Request;
+            listObjectsV2Response = s3Call("list", () -> s3Client.listObjectsV2(pageRequest));
+            List<String> keys = listObjectsV2Response.contents().stream().map(S3Object::key).toList();
+            failures.addAll(deleteKeys(keys));
 
             listObjectsV2Request = listObjectsV2Request.toBuilder()
                     .continuationToken(listObjectsV2Response.nextContinuationToken())
                     .build();
         } while (listObjectsV2Response.isTruncated());
+        return failures;
+    }
+
+    // Remove vários arquivos com DeleteObjects (até 1000 chaves por chamada). Retorna as chaves que falharam
+    public List<DeleteFailure> deleteFiles(Collection<String> fileUrls) {
+        Set<String> keys = new LinkedHashSet<>();
+        List<DeleteFailure> failures = new ArrayList<>();
+        for (String fileUrl : fileUrls) {
+            if (fileUrl == null || fileUrl.isEmpty()) {
+                continue;
+            }
+            try {
+                String key = keyFromUrl(fileUrl);
+                keys.add(key);
+                // As versões redimensionadas vão junto; DeleteObjects ignora chaves que não existem
+                for (int width : ImageDerivativeService.WIDTHS) {
+                    keys.add(ImageDerivativeService.derivativeOf(key, width));
+                }
+            } catch (IllegalArgumentException e) {
+                failures.add(new DeleteFailure(fileUrl, "InvalidUrl", e.getMessage()));
+            }
+        }
+        failures.addAll(deleteKeys(new ArrayList<>(keys)));
+        return failures;
+    }
+
+    private List<DeleteFailure> deleteKeys(List<String> keys) {
+        List<DeleteFailure> failures = new ArrayList<>();
+        for (int start = 0; start < keys.size(); start += MAX_DELETE_BATCH) {
+            List<String> batch = keys.subList(start, Math.min(start + MAX_DELETE_BATCH, keys.size()));
+            List<ObjectIdentifier> objects = batch.stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
+                    .build();
+            try {
+                s3Call("delete_batch", () -> s3Client.deleteObjects(deleteObjectsRequest)).errors()
+                        .forEach(error -> {
+                            // A chamada deu certo, mas a chave falhou: conta como erro de delete mesmo assim
+                            s3ErrorCounter("delete_batch", error.code()).increment();
+                            failures.add(new DeleteFailure(error.key(), error.code(), error.message()));
+                        });
+            } catch (SdkException e) {
+                batch.forEach(key -> failures.add(new DeleteFailure(key, "RequestFailed", e.getMessage())));
+            }
+        }
+        for (DeleteFailure failure : failures) {
+            log.warn("Failed to delete file {}: {} {}", failure.key(), failure.code(), failure.message());
+        }
+        return failures;
     }
 
-    private String extractFileNameFromUrl(String fileUrl) {
+    // Chamada ao S3 dentro do bulkhead; o tempo em s3.requests não inclui a espera pela permissão.
+    // Todo acesso ao bucket passa por aqui para aparecer em s3.requests e s3.errors
+    public <T> T s3Call(String operation, Supplier<T> call) {
+        return s3Bulkhead.call(() -> {
+            var sample = Timer.start(meterRegistry);
+            var outcome = "error";
+            try {
+                T result = call.get();
+                outcome = "success";
+                return result;
+            } catch (RuntimeException e) {
+                s3ErrorCounter(operation, errorCode(e)).increment();
+                throw e;
+            } finally {
+                sample.stop(Timer.builder("s3.requests")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+        });
+    }
+
+    private Counter s3ErrorCounter(String operation, String code) {
+        return Counter.builder("s3.errors")
+                .tag("operation", operation)
+                .tag("code", code == null ? "unknown" : code)
+                .register(meterRegistry);
+    }
+
+    private static String errorCode(RuntimeException e) {
+        if (e instanceof S3Exception s3Exception) {
+            var details = s3Exception.awsErrorDetails();
+            return details != null && details.errorCode() != null ? details.errorCode() : String.valueOf(s3Exception.statusCode());
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    public String keyFromUrl(String fileUrl) {
         String prefix = endpoint + "/" + bucketName + "/";
         if (fileUrl.startsWith(prefix)) {
             return fileUrl.substring(prefix.length());
@@ -83,14 +361,4 @@ public class StoreFileService {
             throw new IllegalArgumentException("Invalid file URL: " + fileUrl);
         }
     }
-
-    private File convertMultiPartFileToFile(MultipartFile file) {
-        File convertedFile = new File(file.getOriginalFilename());
-        try (FileOutputStream fos = new FileOutputStream(convertedFile)) {
-            fos.write(file.getBytes());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return convertedFile;
-    }
-}
\ No newline at end of file
+}
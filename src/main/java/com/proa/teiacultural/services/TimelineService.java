@@ -0,0 +1,123 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.controller.dto.FeedDto.FeedCursor;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedItemDto;
+import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.repository.FollowRepository;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.TimelineEntryRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+// Timeline personalizada (/feed/home). Criadores com até timeline.fanout-max-followers seguidores têm cada
+// publicação copiada para tb_timeline_entries na escrita (fan-out on write); os maiores são lidos na hora
+// (fan-out on read), uma consulta por índice para cada um, e intercalados com a timeline. Uma página faz no
+// máximo 2 + timeline.max-large-creators consultas: quem segue mais criadores grandes que isso só vê, na leitura,
+// os timeline.max-large-creators de mais seguidores
+@Service
+public class TimelineService {
+    private static final Comparator<FeedItemDto> FEED_ORDER = Comparator
+            .comparing(FeedItemDto::creationTimestamp, Comparator.reverseOrder())
+            .thenComparing(FeedItemDto::PublicationId, Comparator.reverseOrder());
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final FollowRepository followRepository;
+    private final PublicationRepository publicationRepository;
+    private final UserRepository userRepository;
+
+    @Value("${timeline.fanout-max-followers}")
+    private long fanoutMaxFollowers;
+
+    @Value("${timeline.backfill-size}")
+    private int backfillSize;
+
+    @Value("${timeline.max-large-creators}")
+    private int maxLargeCreators;
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository, FollowRepository followRepository,
+                           PublicationRepository publicationRepository, UserRepository userRepository) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.followRepository = followRepository;
+        this.publicationRepository = publicationRepository;
+        this.userRepository = userRepository;
+    }
+
+    public boolean usesFanoutOnWrite(long followerCount) {
+        return followerCount <= fanoutMaxFollowers;
+    }
+
+    @Transactional
+    public void publicationCreated(Publication publication) {
+        var followerCount = userRepository.findFollowerCountById(publication.getUser().getId()).orElse(0L);
+        if (usesFanoutOnWrite(followerCount)) {
+            timelineEntryRepository.fanOut(publication.getPublicationId());
+        }
+    }
+
+    @Transactional
+    public void publicationsImported(Collection<Long> publicationIds) {
+        if (!publicationIds.isEmpty()) {
+            timelineEntryRepository.fanOutAll(publicationIds, fanoutMaxFollowers);
+        }
+    }
+
+    @Transactional
+    public void publicationDeleted(long publicationId) {
+        timelineEntryRepository.deleteByPublicationId(publicationId);
+    }
+
+    // Novo seguidor: as últimas publicações do criador entram na timeline dele
+    @Transactional
+    public void followed(UUID followerId, UUID followedId, long followedFollowerCount) {
+        if (!usesFanoutOnWrite(followedFollowerCount)) {
+            return;
+        }
+        var timestamps = publicationRepository.findCreationTimestampsByUserId(followedId, PageRequest.of(backfillSize - 1, 1));
+        var since = timestamps.isEmpty() ? Instant.EPOCH : timestamps.get(0);
+        timelineEntryRepository.backfill(followerId, followedId, since);
+    }
+
+    @Transactional
+    public void unfollowed(UUID followerId, UUID followedId) {
+        timelineEntryRepository.deleteByOwnerIdAndAuthorId(followerId, followedId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<FeedItemDto> home(UUID userId, FeedCursor after, int pageSize) {
+        var page = PageRequest.ofSize(pageSize);
+        var feedItems = new ArrayList<>(after == null
+                ? timelineEntryRepository.findTimeline(userId, page)
+                : timelineEntryRepository.findTimelineAfter(userId, after.creationTimestamp(), after.publicationId(), page));
+
+        // Metade do limite: um criador que caiu um pouco abaixo do limite ainda tem publicações
+        // da época em que não recebia fan-out; as repetidas são descartadas na intercalação
+        var largeCreators = followRepository.findFollowedWithMoreFollowersThan(userId, fanoutMaxFollowers / 2, PageRequest.ofSize(maxLargeCreators));
+        if (largeCreators.isEmpty()) {
+            return feedItems;
+        }
+        // Cada criador contribui com no máximo pageSize itens, lidos em ordem pelo índice; a intercalação fica aqui
+        for (UUID creatorId : largeCreators) {
+            feedItems.addAll(after == null
+                    ? publicationRepository.findFeedItemsByUserId(creatorId, page)
+                    : publicationRepository.findFeedItemsByUserIdAfter(creatorId, after.creationTimestamp(), after.publicationId(), page));
+        }
+
+        var seen = new HashSet<Long>();
+        return feedItems.stream()
+                .sorted(FEED_ORDER)
+                .filter(item -> seen.add(item.PublicationId()))
+                .limit(pageSize)
+                .toList();
+    }
+}
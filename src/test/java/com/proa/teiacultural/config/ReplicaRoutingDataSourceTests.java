@@ -0,0 +1,137 @@
+package com.proa.teiacultural.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primário e réplica são dois bancos H2 distintos; tb_marker diz de qual deles veio a leitura.
+// O atraso da réplica é simulado escrevendo o batimento dela à mão
+@SpringBootTest(properties = {
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER;IGNORECASE=TRUE",
+        "datasource.replica.driver-class-name=org.h2.Driver",
+        "datasource.replica.max-lag-ms=2000",
+        // As verificações são disparadas pelo teste
+        "datasource.replica.lag-check-interval-ms=3600000"
+})
+class ReplicaRoutingDataSourceTests {
+    private static final String SELECT_MARKER = "SELECT name FROM tb_marker";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (var jdbcTemplate : new JdbcTemplate[]{primary, replica}) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS tb_marker (name VARCHAR(16))");
+            jdbcTemplate.execute("DELETE FROM tb_marker");
+        }
+        primary.update("INSERT INTO tb_marker (name) VALUES ('primary')");
+        replica.update("INSERT INTO tb_marker (name) VALUES ('replica')");
+        replica.execute("CREATE TABLE IF NOT EXISTS tb_replica_heartbeat (id INT PRIMARY KEY, beat_timestamp TIMESTAMP(6) NOT NULL)");
+
+        lagMonitor.check();
+        replicaCatchesUp();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeTransactionsGoToThePrimary() {
+        assertThat(readOnly()).isEqualTo("replica");
+        assertThat(readWrite()).isEqualTo("primary");
+    }
+
+    @Test
+    void ownWriteKeepsTheUserOnThePrimaryUntilTheReplicaAppliesIt() {
+        var writer = UUID.randomUUID().toString();
+        authenticate(writer);
+        readWrite();
+
+        assertThat(readOnly()).isEqualTo("primary");
+        authenticate(UUID.randomUUID().toString());
+        assertThat(readOnly()).isEqualTo("replica");
+
+        // O batimento gravado por esta verificação é posterior ao commit da escrita
+        lagMonitor.check();
+        replicaCatchesUp();
+        authenticate(writer);
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        var primaryBeat = primary.queryForObject("SELECT beat_timestamp FROM tb_replica_heartbeat WHERE id = 1", Timestamp.class);
+        replica.update("UPDATE tb_replica_heartbeat SET beat_timestamp = ? WHERE id = 1",
+                Timestamp.from(primaryBeat.toInstant().minus(Duration.ofMinutes(1))));
+        lagMonitor.check();
+
+        assertThat(readOnly()).isEqualTo("primary");
+    }
+
+    // Replicação simulada: copia para a réplica o último batimento do primário
+    private void replicaCatchesUp() {
+        var primaryBeat = primary.queryForObject("SELECT beat_timestamp FROM tb_replica_heartbeat WHERE id = 1", Timestamp.class);
+        replica.update("DELETE FROM tb_replica_heartbeat");
+        replica.update("INSERT INTO tb_replica_heartbeat (id, beat_timestamp) VALUES (1, ?)", primaryBeat);
+        lagMonitor.check();
+    }
+
+    private String readOnly() {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> new JdbcTemplate(dataSource).queryForObject(SELECT_MARKER, String.class));
+    }
+
+    private String readWrite() {
+        return new TransactionTemplate(transactionManager).execute(status -> new JdbcTemplate(dataSource).queryForObject(SELECT_MARKER, String.class));
+    }
+
+    private static void authenticate(String subject) {
+        var jwt = Jwt.withTokenValue("token").header("alg", "none").subject(subject).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
@@ -0,0 +1,101 @@
+package com.proa.teiacultural.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedCursor;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedDto;
+import com.proa.teiacultural.controller.dto.FeedDto.FeedItemDto;
+import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.entities.User;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FeedCursorPaginationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/feed").param("cursor", "garbage")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/feed").param("cursor", "1714566645.123_abc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void publicationsWithTheSameTimestampAreNeitherSkippedNorRepeated() throws Exception {
+        // Mais novas que qualquer outra publicação do banco de teste, todas no mesmo instante
+        var tied = Instant.parse("2100-01-01T00:00:00.123456Z");
+        var ids = createPublications(tied, 5);
+        var cursor = new FeedCursor(tied.plusSeconds(1), Long.MAX_VALUE).encode();
+
+        // Páginas de 2: o empate atravessa as fronteiras das 3 páginas
+        var seen = new ArrayList<Long>();
+        for (int i = 0; i < 3; i++) {
+            assertThat(cursor).isNotNull();
+            var page = feedAfter(cursor, 2);
+            page.feedItems().stream().map(FeedItemDto::PublicationId).forEach(seen::add);
+            cursor = page.nextCursor();
+        }
+
+        assertThat(seen.subList(0, ids.size())).containsExactlyElementsOf(ids.stream().sorted(Comparator.reverseOrder()).toList());
+    }
+
+    private FeedDto feedAfter(String cursor, int pageSize) throws Exception {
+        var body = mockMvc.perform(get("/feed").param("cursor", cursor).param("pageSize", String.valueOf(pageSize)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, FeedDto.class);
+    }
+
+    private List<Long> createPublications(Instant creationTimestamp, int count) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            var id = UUID.randomUUID().toString().substring(0, 8);
+            var user = new User();
+            user.setEmail("cursor" + id + "@gmail.com");
+            user.setName("cursor");
+            user.setCpf("c" + id);
+            user.setTelephone("0");
+            userRepository.save(user);
+
+            var ids = new ArrayList<Long>();
+            for (int i = 0; i < count; i++) {
+                var publication = new Publication();
+                publication.setUser(user);
+                publication.setContent("tie " + i);
+                publication.setCreationTimestamp(creationTimestamp);
+                ids.add(publicationRepository.save(publication).getPublicationId());
+            }
+            return ids;
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.proa.teiacultural.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String email;
+
+    @BeforeEach
+    void createUser() throws Exception {
+        var id = UUID.randomUUID().toString().substring(0, 8);
+        email = "token" + id + "@gmail.com";
+        postJson("/users", Map.of("email", email, "password", "123", "name", "token", "cpf", "t" + id, "telephone", "0"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshRotatesTheToken() throws Exception {
+        var login = login();
+        var rotated = refresh(login.get("refreshToken").asText()).andExpect(status().isOk());
+
+        var body = json(rotated);
+        assertThat(body.get("acessToken").asText()).isNotEmpty();
+        assertThat(body.get("refreshToken").asText()).isNotEqualTo(login.get("refreshToken").asText());
+        refresh(body.get("refreshToken").asText()).andExpect(status().isOk());
+    }
+
+    @Test
+    void reusedTokenRevokesEveryTokenOfTheUser() throws Exception {
+        var first = login().get("refreshToken").asText();
+        var otherSession = login().get("refreshToken").asText();
+        var successor = json(refresh(first).andExpect(status().isOk())).get("refreshToken").asText();
+
+        refresh(first).andExpect(status().isUnauthorized());
+
+        refresh(successor).andExpect(status().isUnauthorized());
+        refresh(otherSession).andExpect(status().isUnauthorized());
+        assertThat(activeTokens()).isZero();
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws Exception {
+        var refreshToken = login().get("refreshToken").asText();
+        jdbcTemplate.update("UPDATE tb_refresh_tokens SET expires_at = ? WHERE user_id = (SELECT user_id FROM tb_users WHERE email = ?)",
+                Timestamp.from(Instant.now().minusSeconds(1)), email);
+
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unknownAndRevokedTokensAreRejected() throws Exception {
+        refresh("unknown").andExpect(status().isUnauthorized());
+
+        var refreshToken = login().get("refreshToken").asText();
+        postJson("/token/revoke", Map.of("refreshToken", refreshToken)).andExpect(status().isNoContent());
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode login() throws Exception {
+        return json(postJson("/login", Map.of("email", email, "password", "123")).andExpect(status().isOk()));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return postJson("/token/refresh", Map.of("refreshToken", refreshToken));
+    }
+
+    private ResultActions postJson(String url, Map<String, String> body) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+
+    private long activeTokens() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_refresh_tokens t JOIN tb_users u ON u.user_id = t.user_id " +
+                "WHERE u.email = ? AND t.revoked_at IS NULL", Long.class, email);
+    }
+}
@@ -0,0 +1,35 @@
+package com.proa.teiacultural.controller.dto.FeedDto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTests {
+
+    @Test
+    void encodeAndParseRoundTrip() {
+        var cursor = new FeedCursor(Instant.parse("2024-05-01T12:30:45.123456Z"), 42);
+
+        assertThat(cursor.encode()).isEqualTo("1714566645.123456000_42");
+        assertThat(FeedCursor.parse(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsTimestampsBeforeTheEpochAndWithoutFraction() {
+        for (var instant : new Instant[]{Instant.parse("1969-12-31T23:59:59.5Z"), Instant.ofEpochSecond(0), Instant.parse("2100-01-01T00:00:00Z")}) {
+            var cursor = new FeedCursor(instant, 7);
+            assertThat(FeedCursor.parse(cursor.encode())).isEqualTo(cursor);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "garbage", "1714566645_42", "1714566645.123", "_42.1", "a.b_c", "1.2_x", "1.2_", "9999999999999999999.0_1"})
+    void rejectsMalformedCursors(String value) {
+        assertThatThrownBy(() -> FeedCursor.parse(value)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
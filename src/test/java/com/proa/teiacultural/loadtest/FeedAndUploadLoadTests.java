@@ -0,0 +1,240 @@
+package com.proa.teiacultural.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.entities.User;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.RoleRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Teste de carga em processo para /feed e /publications (o mesmo cenário de docker/loadtest/feed-and-upload.js).
+// Só roda com -Dloadtest=true:
+//   mvn test -Dtest=FeedAndUploadLoadTests -Dloadtest=true -Dloadtest.feed-rate=200 -Dloadtest.upload-rate=0
+// Modelo aberto: as requisições saem na taxa pedida, cada uma numa virtual thread, sem esperar as anteriores.
+// H2 no lugar do MySQL e S3 simulado com 20 ms por put; mede a aplicação e o pool, não a rede nem o banco real
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class FeedAndUploadLoadTests {
+    private static final int SEED_PUBLICATIONS = 300;
+    private static final int FEED_PAGES = 20;
+    private static final long S3_PUT_MS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private S3Client s3Client;
+
+    private record Stats(String name, List<Long> latencies, AtomicInteger failed) {
+        Stats(String name) {
+            this(name, Collections.synchronizedList(new ArrayList<>()), new AtomicInteger());
+        }
+    }
+
+    private interface Request {
+        int status() throws Exception;
+    }
+
+    @Test
+    void feedAndUpload() throws Exception {
+        int feedRate = Integer.getInteger("loadtest.feed-rate", 60);
+        int uploadRate = Integer.getInteger("loadtest.upload-rate", 5);
+        int seconds = Integer.getInteger("loadtest.seconds", 20);
+
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            Thread.sleep(S3_PUT_MS);
+            return PutObjectResponse.builder().build();
+        });
+        seed();
+        var token = login();
+        var image = Files.readAllBytes(Path.of("docker/loadtest/sample.png"));
+
+        // Aquecimento do JIT fora da medição
+        for (int i = 0; i < 500; i++) {
+            feed(i % FEED_PAGES);
+        }
+        for (int i = 0; i < 20; i++) {
+            upload(token, image);
+        }
+
+        var feed = new Stats("feed");
+        var upload = new Stats("upload");
+        var random = new Random(1);
+        var inflight = new ArrayList<CompletableFuture<?>>();
+        var maxPending = new AtomicLong();
+        var sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            var pending = meterRegistry.find("hikaricp.connections.pending").gauge();
+            if (pending != null) {
+                maxPending.accumulateAndGet((long) pending.value(), Math::max);
+            }
+        }, 0, 50, TimeUnit.MILLISECONDS);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long feedSent = 0;
+            long uploadSent = 0;
+            while (System.nanoTime() - start < TimeUnit.SECONDS.toNanos(seconds)) {
+                double elapsed = (System.nanoTime() - start) / 1e9;
+                while (feedSent < elapsed * feedRate) {
+                    feedSent++;
+                    int page = random.nextInt(FEED_PAGES);
+                    inflight.add(timed(executor, feed, () -> feed(page)));
+                }
+                while (uploadSent < elapsed * uploadRate) {
+                    uploadSent++;
+                    inflight.add(timed(executor, upload, () -> upload(token, image)));
+                }
+                Thread.sleep(1);
+            }
+            CompletableFuture.allOf(inflight.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        } finally {
+            sampler.shutdownNow();
+        }
+
+        report(feed, seconds);
+        report(upload, seconds);
+        var acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        System.out.printf("hikari acquire max=%.1fms, max pending=%d%n",
+                acquire == null ? Double.NaN : acquire.max(TimeUnit.MILLISECONDS), maxPending.get());
+
+        assertThat(feed.failed()).hasValue(0);
+        assertThat(upload.failed()).hasValue(0);
+    }
+
+    private void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            var user = new User();
+            user.setEmail("load@gmail.com");
+            user.setName("load");
+            user.setCpf("load");
+            user.setTelephone("0");
+            user.setUsername("load");
+            user.setPassword(passwordEncoder.encode("123"));
+            user.setRoles(Set.of(roleRepository.findByName("premium")));
+            userRepository.save(user);
+            for (int i = 0; i < SEED_PUBLICATIONS; i++) {
+                var publication = new Publication();
+                publication.setUser(user);
+                publication.setContent("seed " + i);
+                publicationRepository.save(publication);
+            }
+        });
+    }
+
+    private String login() throws Exception {
+        var body = mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", "load@gmail.com", "password", "123"))))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("acessToken").asText();
+    }
+
+    private int feed(int page) throws Exception {
+        return mockMvc.perform(get("/feed").param("page", String.valueOf(page)).param("pageSize", "10"))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private int upload(String token, byte[] image) throws Exception {
+        var request = multipart("/publications");
+        request.param("content", "load test");
+        for (int i = 1; i <= 4; i++) {
+            request.file(new MockMultipartFile("imageUrl" + i, "image" + i + ".png", MediaType.IMAGE_PNG_VALUE, image));
+        }
+        return mockMvc.perform(request.header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private static CompletableFuture<?> timed(ExecutorService executor, Stats stats, Request request) {
+        long start = System.nanoTime();
+        return CompletableFuture.runAsync(() -> {
+            int status;
+            try {
+                status = request.status();
+            } catch (Exception e) {
+                status = -1;
+            }
+            stats.latencies().add(System.nanoTime() - start);
+            if (status != 200) {
+                stats.failed().incrementAndGet();
+            }
+        }, executor);
+    }
+
+    private static void report(Stats stats, int seconds) {
+        var latencies = new ArrayList<>(stats.latencies());
+        if (latencies.isEmpty()) {
+            return;
+        }
+        Collections.sort(latencies);
+        System.out.printf("%s: n=%d rps=%d failed=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n",
+                stats.name(), latencies.size(), latencies.size() / seconds, stats.failed().get(),
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                latencies.get(latencies.size() - 1) / 1e6);
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) (quantile * sorted.size()))) / 1e6;
+    }
+}
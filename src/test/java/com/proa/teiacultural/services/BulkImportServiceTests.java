@@ -0,0 +1,175 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.controller.dto.AdminDto.ImportErrorDto;
+import com.proa.teiacultural.controller.dto.AdminDto.ImportResultDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Os workers agendados ficam parados para não somarem consultas às estatísticas do Hibernate
+@SpringBootTest(properties = {
+        "import.chunk-size=250",
+        "counters.flush-interval-ms=3600000",
+        "storage.cleanup.interval-ms=3600000",
+        "images.derivative-interval-ms=3600000",
+        "jwt.refresh-token.purge-interval-ms=3600000"
+})
+class BulkImportServiceTests {
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String author;
+
+    @BeforeEach
+    void importAuthor() throws IOException {
+        author = "author" + unique();
+        var result = importUsers(user(author, "premium"));
+        assertThat(result.imported()).isEqualTo(1);
+    }
+
+    @Test
+    void insertsPublicationsInJdbcBatches() throws IOException {
+        var lines = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add(publication(author, "post " + i));
+        }
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var result = importPublications(lines);
+
+        assertThat(result.imported()).isEqualTo(1000);
+        assertThat(result.skipped()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1000);
+        // 4 lotes de 250 linhas: por lote, 250 / BATCH_SIZE inserts, as idas à sequência e algumas consultas
+        // fixas (autores, timeline, contadores). Sem lotes JDBC seriam pelo menos 1000 comandos
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(1000 / BATCH_SIZE * 3);
+        assertThat(publicationsOf(author)).isEqualTo(1000);
+    }
+
+    @Test
+    void pooledLoNeverReusesIdsHandedOutFromTheOldRange() throws IOException {
+        // O otimizador pooled antigo, com a sequência em V, já tinha usado os ids V-49..V
+        long lastValue = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(publication_id), 0) FROM tb_publication", Long.class) + 10_000;
+        jdbcTemplate.execute("ALTER SEQUENCE tb_publication_seq RESTART WITH " + (lastValue + BATCH_SIZE));
+        var authorId = jdbcTemplate.queryForObject("SELECT user_id FROM tb_users WHERE username = ?", UUID.class, author);
+        for (long id = lastValue - BATCH_SIZE + 1; id <= lastValue; id++) {
+            jdbcTemplate.update("INSERT INTO tb_publication (publication_id, user_id, content, creation_timestamp) VALUES (?, ?, 'old', CURRENT_TIMESTAMP)",
+                    id, authorId);
+        }
+
+        var lines = new ArrayList<String>();
+        for (int i = 0; i < 3 * BATCH_SIZE; i++) {
+            lines.add(publication(author, "new " + i));
+        }
+        var result = importPublications(lines);
+
+        // Uma colisão com os ids antigos desfaria o lote inteiro
+        assertThat(result.skipped()).isZero();
+        assertThat(result.imported()).isEqualTo(3 * BATCH_SIZE);
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(publication_id) FROM tb_publication WHERE content LIKE 'new %'", Long.class))
+                .isGreaterThan(lastValue);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_publication WHERE publication_id BETWEEN ? AND ? AND content = 'old'",
+                Long.class, lastValue - BATCH_SIZE + 1, lastValue)).isEqualTo(BATCH_SIZE);
+    }
+
+    @Test
+    void reportsInvalidLinesAndImportsTheRest() throws IOException {
+        var id = unique();
+        var plainPassword = "{\"email\":\"plain" + id + "@gmail.com\",\"name\":\"x\",\"cpf\":\"p" + id + "\",\"telephone\":\"0\",\"password\":\"123\"}";
+        var withHash = "{\"email\":\"hash" + id + "@gmail.com\",\"name\":\"x\",\"cpf\":\"h" + id + "\",\"telephone\":\"0\",\"password\":\""
+                + new BCryptPasswordEncoder().encode("123") + "\"}";
+
+        var result = importUsers(
+                user("ok" + id, "basic"),
+                "{\"email\":\"missing" + id + "@gmail.com\"}",
+                "not json",
+                "",
+                plainPassword,
+                user("admin" + id, "admin"),
+                "{\"email\":\"premium" + id + "@gmail.com\",\"name\":\"x\",\"cpf\":\"n" + id + "\",\"telephone\":\"0\",\"roles\":[\"premium\"]}",
+                "{\"email\":\"dup" + id + "@gmail.com\",\"name\":\"x\",\"cpf\":\"d" + id + "\",\"telephone\":\"0\",\"username\":\"" + author.toUpperCase() + "\"}",
+                withHash);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.withoutPassword()).isEqualTo(1);
+        assertThat(result.errors()).extracting(ImportErrorDto::line).containsExactly(2L, 3L, 5L, 6L, 7L, 8L);
+        assertThat(result.errors()).extracting(ImportErrorDto::message).containsExactly(
+                "email, name, cpf and telephone are required",
+                "Invalid JSON: Unrecognized token 'not': was expecting (JSON String, Number, Array, Object or token 'null', 'true' or 'false')",
+                "password must be a bcrypt hash",
+                "Unsupported role: admin",
+                "username is required for premium users",
+                "Username already exists");
+    }
+
+    @Test
+    void databaseFailureSkipsOnlyItsChunk() throws IOException {
+        var lines = new ArrayList<String>();
+        for (int i = 0; i < 750; i++) {
+            // content é VARCHAR(255): a linha 400 estoura a coluna e desfaz o segundo lote (linhas 251 a 500)
+            lines.add(publication(author, i == 399 ? "x".repeat(300) : "post " + i));
+        }
+
+        var result = importPublications(lines);
+
+        assertThat(result.imported()).isEqualTo(500);
+        assertThat(result.skipped()).isEqualTo(250);
+        assertThat(result.errors()).hasSize(100);
+        assertThat(result.errors().get(0).line()).isEqualTo(251);
+        assertThat(result.errors()).allSatisfy(error -> assertThat(error.message()).startsWith("Chunk rolled back: "));
+        assertThat(publicationsOf(author)).isEqualTo(500);
+    }
+
+    private ImportResultDto importUsers(String... lines) throws IOException {
+        return bulkImportService.importUsers(ndjson(List.of(lines)));
+    }
+
+    private ImportResultDto importPublications(List<String> lines) throws IOException {
+        return bulkImportService.importPublications(ndjson(lines));
+    }
+
+    private long publicationsOf(String username) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_publication p JOIN tb_users u ON u.user_id = p.user_id WHERE u.username = ?",
+                Long.class, username);
+    }
+
+    private static ByteArrayInputStream ndjson(List<String> lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String user(String username, String role) {
+        return "{\"email\":\"" + username + "@gmail.com\",\"name\":\"" + username + "\",\"cpf\":\"" + username + "\",\"telephone\":\"0\","
+                + "\"username\":\"" + username + "\",\"roles\":[\"" + role + "\"]}";
+    }
+
+    private static String publication(String username, String content) {
+        return "{\"username\":\"" + username + "\",\"content\":\"" + content + "\"}";
+    }
+
+    private static String unique() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
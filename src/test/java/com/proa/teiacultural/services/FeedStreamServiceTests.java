@@ -0,0 +1,57 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.config.Bulkhead;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "feed.stream.max-concurrent=1",
+        "feed.stream.max-wait-ms=0"
+})
+@AutoConfigureMockMvc
+class FeedStreamServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FeedStreamService feedStreamService;
+
+    @Test
+    void streamsWhileThereArePermits() throws Exception {
+        mockMvc.perform(asyncDispatch(startStream()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableWhenAllStreamsAreBusy() throws Exception {
+        var bulkhead = (Bulkhead) ReflectionTestUtils.getField(feedStreamService, "bulkhead");
+        bulkhead.acquire();
+        try {
+            mockMvc.perform(asyncDispatch(startStream()))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private MvcResult startStream() throws Exception {
+        return mockMvc.perform(get("/feed/username/{username}", "nobody")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .with(jwt()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,121 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.repository.PublicationCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+// Os workers agendados ficam parados; flush e refresh são chamados pelo teste.
+// Cada teste usa um usuário novo, então os contadores dele começam em zero
+@SpringBootTest(properties = {
+        "counters.flush-interval-ms=3600000",
+        "counters.refresh-interval-ms=3600000"
+})
+class PublicationCounterServiceTests {
+
+    @Autowired
+    private PublicationCounterService publicationCounterService;
+
+    @SpyBean
+    private PublicationCounterRepository publicationCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void resetRepository() {
+        reset(publicationCounterRepository);
+    }
+
+    @Test
+    void flushWritesTheDeltaOfTheCurrentEpoch() {
+        var userId = UUID.randomUUID();
+        publicationCounterService.publicationsChanged(userId, 2);
+
+        assertThat(publicationCounterService.countByUser(userId)).isEqualTo(2);
+        assertThat(persisted("user:" + userId)).isNull();
+
+        publicationCounterService.flush();
+
+        assertThat(persisted("user:" + userId)).isEqualTo(2);
+        assertThat(publicationCounterService.countByUser(userId)).isEqualTo(2);
+    }
+
+    @Test
+    void rolledBackWriteDoesNotChangeTheCounters() {
+        var userId = UUID.randomUUID();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publicationCounterService.publicationsChanged(userId, 1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(publicationCounterService.countByUser(userId)).isZero();
+    }
+
+    @Test
+    void deltasFromBeforeAnotherInstanceReconciledAreDiscarded() {
+        var userId = UUID.randomUUID();
+        publicationCounterService.publicationsChanged(userId, 1);
+        publicationCounterService.publicationsChanged(userId, 1);
+        assertThat(publicationCounterService.countByUser(userId)).isEqualTo(2);
+
+        // Outra instância reconciliou: época nova e contagem exata que já inclui as duas publicações
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publicationCounterRepository.add("epoch", 1);
+            publicationCounterRepository.add("user:" + userId, 2);
+        });
+
+        publicationCounterService.flush();
+        assertThat(persisted("user:" + userId)).isEqualTo(2);
+
+        publicationCounterService.refresh();
+        assertThat(publicationCounterService.countByUser(userId)).isEqualTo(2);
+
+        // Os deltas da época nova voltam a ser descarregados
+        publicationCounterService.publicationsChanged(userId, 1);
+        publicationCounterService.flush();
+        assertThat(persisted("user:" + userId)).isEqualTo(3);
+    }
+
+    @Test
+    void failedFlushRequeuesTheDeltas() {
+        var userId = UUID.randomUUID();
+        var key = "user:" + userId;
+        publicationCounterService.publicationsChanged(userId, 1);
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(publicationCounterRepository).add(eq(key), anyLong());
+
+        assertThatThrownBy(publicationCounterService::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(persisted(key)).isNull();
+        assertThat(publicationCounterService.countByUser(userId)).isEqualTo(1);
+
+        reset(publicationCounterRepository);
+        publicationCounterService.flush();
+
+        assertThat(persisted(key)).isEqualTo(1);
+        assertThat(publicationCounterService.countByUser(userId)).isEqualTo(1);
+    }
+
+    private Long persisted(String key) {
+        return jdbcTemplate.query("SELECT count_value FROM tb_publication_counters WHERE counter_key = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, key);
+    }
+}
@@ -0,0 +1,153 @@
+package com.proa.teiacultural.services;
+
+import com.proa.teiacultural.controller.dto.SearchDto.SearchHitDto;
+import com.proa.teiacultural.controller.dto.SearchDto.SearchPublicationSource;
+import com.proa.teiacultural.entities.Publication;
+import com.proa.teiacultural.entities.User;
+import com.proa.teiacultural.repository.PublicationRepository;
+import com.proa.teiacultural.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Sem Spring: os repositórios só são usados pela reconstrução
+class SearchIndexServiceTests {
+    private final PublicationRepository publicationRepository = mock(PublicationRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SearchIndexService searchIndexService = new SearchIndexService(publicationRepository, userRepository);
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void emptyDatabase() {
+        when(userRepository.findSearchSourcesAfter(anyString(), any())).thenReturn(List.of());
+        when(publicationRepository.findSearchSourcesAfter(anyLong(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tokenizeFoldsAccentsAndCase() {
+        assertThat(SearchIndexService.tokenize("Dança, MÚSICA e Teatro!")).containsExactly("danca", "musica", "teatro");
+        assertThat(SearchIndexService.tokenize("  ")).isEmpty();
+    }
+
+    @Test
+    void searchMatchesWithoutAccents() {
+        searchIndexService.indexPublication(publication(1, "Oficina de dança contemporânea"));
+
+        assertThat(ids(searchIndexService.search("DANCA contemporanea", null, 0, 10).results())).containsExactly(1L);
+    }
+
+    @Test
+    void bm25RanksFrequentTermsInShortDocumentsFirst() {
+        searchIndexService.indexPublication(publication(1, "teatro teatro teatro"));
+        searchIndexService.indexPublication(publication(2, "teatro de rua com música ao vivo e oficina aberta ao público"));
+        searchIndexService.indexPublication(publication(3, "música ao vivo"));
+
+        var results = searchIndexService.search("teatro", null, 0, 10).results();
+
+        assertThat(ids(results)).containsExactly(1L, 2L);
+        assertThat(results.get(0).score()).isGreaterThan(results.get(1).score());
+    }
+
+    @Test
+    void rareTermsWeighMoreThanCommonOnes() {
+        searchIndexService.indexPublication(publication(1, "show de jazz"));
+        searchIndexService.indexPublication(publication(2, "show de rock"));
+        searchIndexService.indexPublication(publication(3, "show de samba"));
+
+        // "show" está em todos os documentos; "jazz" só no primeiro
+        assertThat(ids(searchIndexService.search("show jazz", null, 0, 10).results())).first().isEqualTo(1L);
+    }
+
+    @Test
+    void paginatesByScore() {
+        for (long id = 1; id <= 5; id++) {
+            searchIndexService.indexPublication(publication(id, "poesia " + "extra ".repeat((int) id)));
+        }
+
+        var firstPage = searchIndexService.search("poesia", null, 0, 2);
+        var lastPage = searchIndexService.search("poesia", null, 2, 2);
+
+        assertThat(firstPage.totalElements()).isEqualTo(5);
+        assertThat(firstPage.totalPages()).isEqualTo(3);
+        assertThat(ids(firstPage.results())).containsExactly(1L, 2L);
+        assertThat(ids(lastPage.results())).containsExactly(5L);
+    }
+
+    @Test
+    void changesBecomeVisibleOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        searchIndexService.indexPublication(publication(1, "exposição"));
+
+        assertThat(searchIndexService.search("exposicao", null, 0, 10).results()).isEmpty();
+
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(ids(searchIndexService.search("exposicao", null, 0, 10).results())).containsExactly(1L);
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheIndex() {
+        TransactionSynchronizationManager.initSynchronization();
+        searchIndexService.indexPublication(publication(1, "exposição"));
+
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(searchIndexService.search("exposicao", null, 0, 10).results()).isEmpty();
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayedOnTheNewIndex() {
+        searchIndexService.indexPublication(publication(1, "cinema antigo"));
+        // O banco lido pela reconstrução ainda tem a publicação 1 e não tem a 2;
+        // durante a leitura a 1 é removida e a 2 criada
+        when(publicationRepository.findSearchSourcesAfter(eq(0L), any())).thenAnswer(invocation -> {
+            searchIndexService.removePublication(1);
+            searchIndexService.indexPublication(publication(2, "cinema novo"));
+            return List.of(new SearchPublicationSource(1L, userId, "cinema antigo", null, Instant.now()));
+        });
+
+        searchIndexService.rebuild();
+
+        assertThat(ids(searchIndexService.search("cinema", null, 0, 10).results())).containsExactly(2L);
+    }
+
+    private Publication publication(long id, String content) {
+        var user = new User();
+        user.setId(userId);
+        var publication = new Publication();
+        publication.setPublicationId(id);
+        publication.setUser(user);
+        publication.setContent(content);
+        publication.setCreationTimestamp(Instant.now());
+        return publication;
+    }
+
+    private static List<Long> ids(List<SearchHitDto> hits) {
+        return hits.stream().map(SearchHitDto::publicationId).toList();
+    }
+}
@@ -0,0 +1,2 @@
+-- O AdminUserConfig cria o admin sem cpf/telefone, que são obrigatórios; nos testes ele já existe
+INSERT INTO tb_users (user_id, email, name, cpf, telephone, follower_count) VALUES (RANDOM_UUID(), 'admin@gmail.com', 'admin', '0', '0', 0);